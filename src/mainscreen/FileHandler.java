@@ -8,6 +8,7 @@ package mainscreen;
 import model.team.TeamInterface;
 import model.team.Region;
 import model.player.PlayerInterface;
+import model.prizes.Prize;
 import model.prizes.PrizeType;
 import java.io.BufferedReader;
 import java.io.File;
@@ -204,12 +205,12 @@ public class FileHandler  {
                  * Set payment status
                  */
                 if (paid) {
-                    player.paid();
+                    screen.db.setPaid(player, true);
                 }
                 /**
                  * Set tiebreaker score from above
                  */
-                player.setPredictedScore(tiebreakerScore);
+                screen.db.setPredictedScore(player, tiebreakerScore);
                 /**
                  * Reads in player's chosen team
                  */
@@ -538,7 +539,7 @@ public class FileHandler  {
         writer.println("CONTESTS:");
         writer.println("--------------------------------------------------------"
                 + "----------------------------------------");
-        for(PrizeType prize: PrizeType.values()) {
+        for(Prize prize: db.getPrizes()) {
             writer.print(" -"+prize.getName());
             if(prize.equals(PrizeType.WON_FIRST_GAME))
                 writer.print(" (each instance is $"+db.getPrizeMoney(prize)+")");
@@ -6,7 +6,7 @@
 package mainscreen;
 
 import model.MarchMadnessDB;
-import model.prizes.PrizeType;
+import model.prizes.Prize;
 
 /**
  *
@@ -96,7 +96,7 @@ public class InfoFrame extends javax.swing.JFrame {
                 + "are not final until all scores have been entered.\n";
         
         String prizes = "PRIZES:\n------\n";
-        for(PrizeType prize: PrizeType.values()) {
+        for(Prize prize: db.getPrizes()) {
             prizes += "Prize: "+prize.getName()+" | $"+String.format("%.2f", db.getPrizeMoney(prize))+"\n";
             prizes += "Description: "+prize.getDescription()+"\n";
             prizes += "Tiebreaker: "+prize.getTiebreaker()+"\n\n";
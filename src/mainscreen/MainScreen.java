@@ -13,8 +13,10 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.prefs.BackingStoreException;
@@ -39,6 +41,7 @@ import javax.swing.text.html.HTMLEditorKit;
 import javax.swing.text.html.StyleSheet;
 import model.*;
 import model.player.PlayerInterface;
+import model.player.Standing;
 import model.team.TeamInterface;
 import model.team.Region;
 import model.prizes.*;
@@ -1791,7 +1794,33 @@ public class MainScreen extends javax.swing.JFrame {
         }
         
         if(teamScore != oppScore) {
-            if(teamScores.size() == gameNum)
+            if(teamScores.size() == gameNum && oppScores.size() == gameNum) {//Neither score entered yet, add the game at once
+                Map<TeamInterface,Integer> game = new HashMap<>();
+                game.put(team, teamScore);
+                game.put(opponent, oppScore);
+                int errorCode = db.addScores(game);
+                if(errorCode == 3) {//The scores depend on each other, enter them one at a time
+                    errorCode = db.addScore(team, teamScore);
+                    if(errorCode == 0)
+                        errorCode = db.addScore(opponent, oppScore);
+                }
+                if(errorCode != 0) {
+                    String message;
+                    switch(errorCode) {
+                        case 1:
+                            message = "Error: A team has already lost";
+                            break;
+                        case 2:
+                            message = "Error: A team is not in the bracket";
+                            break;
+                        default:
+                            message = "Error: Invalid score";
+                            break;
+                    }
+                    JOptionPane.showMessageDialog(this, message, "Error Score Entry", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+            } else if(teamScores.size() == gameNum)
                 db.addScore(team, teamScore);
             else if(teamScores.size() > gameNum && teamScores.get(gameNum) != teamScore) {
                 teamScores.remove(gameNum);
@@ -1799,7 +1828,7 @@ public class MainScreen extends javax.swing.JFrame {
                 db.editScores(team, teamScores);
             }
 
-            if (oppScores.size() == gameNum) {//Opponent doesn't have a score entered yet
+            if (oppScores.size() == gameNum && teamScores.size() != gameNum) {//Opponent doesn't have a score entered yet
                 db.addScore(opponent, oppScore);
             } else if(oppScores.size() > gameNum && oppScores.get(gameNum) != oppScore) {//Opponent already had score entered
                 oppScores.remove(gameNum);
@@ -1852,7 +1881,7 @@ public class MainScreen extends javax.swing.JFrame {
         //Prizes
         selected = ContestComboBox.getSelectedItem();
         if(selected != null) {
-            PrizeType prize = (PrizeType)selected;
+            Prize prize = (Prize)selected;
             try {
                 db.setPrizeMoney(prize, Double.parseDouble(PrizeTextField.getText()));
             } catch(NumberFormatException e){}
@@ -1895,25 +1924,14 @@ public class MainScreen extends javax.swing.JFrame {
             RemoveScoresRadioButton.doClick();
         }
         if(RemovePlayersRadioButton.isSelected()) {
-            Iterator<PlayerInterface> players = db.getPlayers().iterator();
-            
-            while(!db.getPlayers().isEmpty())
-                db.getPlayers().remove(0);
+            db.removeAllPlayers();
             //PlayersList.setModel(new DefaultComboBoxModel(getPlayers(db.getPlayers())));
             RemovePlayersRadioButton.doClick();
         }
         if(ResetPlayerDataRadioButton.isSelected()) {
             Iterator<PlayerInterface> players = db.getPlayers().iterator();
             while(players.hasNext()) {
-                PlayerInterface player = players.next();
-                player.setPaid(false);
-                player.addChosenTeam(null);
-                player.setPredictedScore(0);
-                while(!player.getTeams().isEmpty())
-                    player.getTeams().remove(0);
-                while(!player.getPickFourTeams().isEmpty())
-                    player.getPickFourTeams().remove(0);
-                
+                db.resetPlayer(players.next());
             }
             ResetPlayerDataRadioButton.doClick();
         }
@@ -1933,7 +1951,7 @@ public class MainScreen extends javax.swing.JFrame {
         Object selected = ContestComboBox.getSelectedItem();
         if(selected == null)
             return;
-        PrizeTextField.setText(String.format("%.2f",db.getPrizeMoney((PrizeType)selected)));
+        PrizeTextField.setText(String.format("%.2f",db.getPrizeMoney((Prize)selected)));
     }//GEN-LAST:event_ContestComboBoxActionPerformed
 
     private void Region1ComboBoxActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_Region1ComboBoxActionPerformed
@@ -1954,7 +1972,7 @@ public class MainScreen extends javax.swing.JFrame {
                 if(temp == null)
                     db.addTeam(teamTextFields[i].getText().trim(), i+1,region);
                 else
-                    temp.setName(teamTextFields[i].getText());
+                    db.renameTeam(temp, teamTextFields[i].getText());
             } else if(!db.teamsAssigned()) {
                 db.removeTeam(temp);
             }
@@ -2113,18 +2131,19 @@ public class MainScreen extends javax.swing.JFrame {
             player = db.findPlayer(name);
                 
         }
-        player.setName(name);
+        if(!db.renamePlayer(player, name))
+            message += "<br>-Error. Duplicate Player Name";
         if(editPlayer != null && spotsPurchased != editPlayer.getNumSpots() && db.teamsAssigned())
             message += "<br>-Error Teams Assigned. Cannot update Spots Purchased";
         else
-            player.setNumSpots(spotsPurchased);
+            db.setNumSpots(player, spotsPurchased);
 
         if(godViewMode || db.getChampionTeam() == null)//Championship game has not happened
-            player.setPredictedScore(tieBreakerScore);
+            db.setPredictedScore(player, tieBreakerScore);
         else if(player.getPredictedScore() != tieBreakerScore)
             message += "<br>-Cannot update tiebreaker score.";
         
-        player.setPaid(EntryFeePaidCheckBox.isSelected());
+        db.setPaid(player, EntryFeePaidCheckBox.isSelected());
         
         boolean changedTeams = false;
         boolean tourneyBegan = db.tournamentHasBegun();
@@ -2136,13 +2155,13 @@ public class MainScreen extends javax.swing.JFrame {
                     if(!player.getChosenWinner().getName().equals(selected.toString())){
                         /*Either the tournament hasn't started or it has started but user is in god view mode*/
                         if(!tourneyBegan || (tourneyBegan && godViewMode))
-                            player.addChosenTeam(db.findTeam(selected.toString()));
+                            db.addChosenWinner(player, db.findTeam(selected.toString()));
                         else
                             changedTeams = true;//dialog
                     }else
                         ;//donothing;
                 } else
-                    player.addChosenTeam(db.findTeam(selected.toString()));
+                    db.addChosenWinner(player, db.findTeam(selected.toString()));
             }
             
             JComboBox[] pickFourComboBoxes = {PickFourTeam1, PickFourTeam2, PickFourTeam3, PickFourTeam4};
@@ -2160,7 +2179,7 @@ public class MainScreen extends javax.swing.JFrame {
                     allSame = player.getPickFourTeams().contains(team);
             if(!allSame) {
                 if(!tourneyBegan || (tourneyBegan && godViewMode))
-                    player.setPickFourTeams(newPickFour);
+                    db.setPickFourTeams(player, newPickFour);
                 else
                     changedTeams = true;
             }
@@ -2295,7 +2314,7 @@ public class MainScreen extends javax.swing.JFrame {
         switch(tabIndex) {
             case 0://main
                 this.setMainTab();
-                for(PrizeType p: db.getPrizes())
+                for(Prize p: db.getPrizes())
                     System.out.println(p+" "+db.getPrizeWinnerTeam(p)+" "+db.getPrizeWinner(p));
                 break;
             case 1://standings
@@ -3048,20 +3067,8 @@ public class MainScreen extends javax.swing.JFrame {
     public String getPlayerLeaderboard() {
         
         String leaderboard = "<html><table><thead><tr><th>#</th><th>Player</th><th>Teams Alive</th></tr></thead><tbody>";
-        int playerNameLength = Math.max(db.findLongestPlayerName(),12);
-        int rank = 0;
-        
-        int prevNum = -1;
-        int numAtScore = 1;
-        for(PlayerInterface player : db.getPlayerLeaderboard()) {
-            int numAlive = player.numTeamsAlive();
-            if(numAlive != prevNum) {
-                rank+=numAtScore;
-                numAtScore = 1;
-                prevNum = numAlive;
-            } else
-                numAtScore++;
-            leaderboard += "<tr><td>"+rank+"</td><td>"+player.toString()+"</td><td>"+player.numTeamsAlive()+"</td></tr>";
+        for(Standing standing : db.getTeamsAliveStandings()) {
+            leaderboard += "<tr><td>"+standing.getRank()+"</td><td>"+standing.getPlayer().toString()+"</td><td>"+standing.getPoints()+"</td></tr>";
         }
         leaderboard += "</tbody></table></html>";
         return leaderboard;
@@ -3069,20 +3076,9 @@ public class MainScreen extends javax.swing.JFrame {
     
     public String getPickFourLeaderboard() {
         String leaderboard = "<html><table><thead><tr><th>#</th><th>Player</th><th>Points</th></tr></thead><tbody>";
-        int playerNameLength = Math.max(db.findLongestPlayerName(),12);
-        int rank = 0;
-        int oldPoints = -1;
-        int numAtScore = 1;
-        for(PlayerInterface player : db.getPickFourLeaderBoard()) {
-            int points = player.getPickFourPoints();
-            int potential = db.getPotentialPickFourPoints(player)+points;
-            if(points != oldPoints) {
-                rank += numAtScore;
-                numAtScore = 1;
-                oldPoints = points;
-            } else
-                numAtScore++;
-            leaderboard += "<tr><td>"+rank+"</td><td>"+player.toString()+"</td><td>"+points+"/"+potential+"</td></tr>";
+        for(Standing standing : db.getPickFourStandings()) {
+            leaderboard += "<tr><td>"+standing.getRank()+"</td><td>"+standing.getPlayer().toString()+"</td><td>"
+                    +standing.getPoints()+"/"+standing.getPotential()+"</td></tr>";
         }
         leaderboard += "</tbody></table></html>";
         return leaderboard;
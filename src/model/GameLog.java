@@ -0,0 +1,404 @@
+package model;
+
+import model.prizes.Prize;
+import model.team.Region;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An append-only record of every change made to a MarchMadnessDB. Events are
+ * packed into a single int array: an opcode followed by its operands. Team and
+ * player names are stored once in a string table and referenced by index, so a
+ * whole tournament takes a few kilobytes.
+ *
+ * The log is written by the database as changes succeed and can be replayed
+ * with MarchMadnessDB.replay to rebuild the database as it was after any
+ * number of events. Replaying all but the last event undoes it.
+ *
+ * @author claymackenthun
+ *
+ * @see MarchMadnessDB#getGameLog()
+ * @see MarchMadnessDB#replay(GameLog, int)
+ */
+public final class GameLog {
+
+    static final int ADD_TEAM = 0;// name, seed, region
+    static final int REMOVE_TEAM = 1;// name
+    static final int RENAME_TEAM = 2;// name, new name
+    static final int MOVE_TEAM = 3;// name, seed, region
+    static final int ADD_SCORE = 4;// team, score
+    static final int EDIT_SCORES = 5;// team, count, scores...
+    static final int ADD_PLAYER = 6;// name, spots purchased
+    static final int REMOVE_PLAYER = 7;// name
+    static final int ADD_OWNED_TEAM = 8;// player, team
+    static final int ADD_PICK_FOUR_TEAM = 9;// player, team
+    static final int ADD_CHOSEN_WINNER = 10;// player, team
+    static final int SET_OT_LOSER = 11;// team (-1 for none)
+    static final int SET_REGIONS = 12;// count, regions...
+    static final int SET_PRICING = 13;// count, (high bits, low bits)...
+    static final int SET_PRIZE_MONEY = 14;// prize name, high bits, low bits
+    static final int ADD_SCORES = 15;// count, (team, score)...
+    static final int RENAME_PLAYER = 16;// name, new name
+    static final int ASSIGN_TEAMS = 17;// high bits, low bits of the draw seed
+    static final int SET_PICK_FOUR_TEAMS = 18;// player, count, teams...
+    static final int SET_PREDICTED_SCORE = 19;// player, score
+    static final int SET_PAID = 20;// player, 1 if paid or 0
+    static final int SET_NUM_SPOTS = 21;// player, spots purchased
+    static final int RESET_PLAYER = 22;// player
+
+    private static final String[] NAMES = {"addTeam", "removeTeam", "renameTeam",
+        "moveTeam", "addScore", "editScores", "addPlayer", "removePlayer",
+        "addOwnedTeam", "addPickFourTeam", "addChosenWinner", "setOTloser",
+        "setRegions", "setPricing", "setPrizeMoney", "addScores", "renamePlayer",
+        "assignTeams", "setPickFourTeams", "setPredictedScore", "setPaid",
+        "setNumSpots", "resetPlayer"};
+
+    private int[] data;// Opcodes and operands of every event
+    private int length;// Number of ints of data in use
+    private int[] starts;// Index in data of each event
+    private int size;// Number of events
+    private final List<String> strings;// String table, indexed by string id
+    private final Map<String, Integer> stringIds;
+
+    /**
+     * Creates an empty log
+     */
+    public GameLog() {
+        data = new int[256];
+        starts = new int[64];
+        strings = new ArrayList<String>();
+        stringIds = new HashMap<String, Integer>();
+    }
+
+    /**
+     * Returns the number of events in the log
+     *
+     * @return size The number of events recorded
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a copy of the first events of this log
+     *
+     * @param events The number of events to keep
+     * @return log A new log holding the first events of this one
+     *
+     * @throws IllegalArgumentException if events is negative or larger than
+     * the size of the log
+     */
+    public GameLog copy(int events) {
+        if (events < 0 || events > size) {
+            throw new IllegalArgumentException();
+        }
+        GameLog copy = new GameLog();
+        int end = (events == size) ? length : starts[events];
+        copy.data = Arrays.copyOf(data, Math.max(end, 256));
+        copy.length = end;
+        copy.starts = Arrays.copyOf(starts, Math.max(events, 64));
+        copy.size = events;
+        for (String string : strings) {
+            copy.string(string);
+        }
+        return copy;
+    }
+
+    /**
+     * Returns a readable description of a single event, such as
+     * "addScore(Duke, 75)"
+     *
+     * @param event The index of the event, 0 being the oldest
+     * @return description The name of the event and its arguments
+     */
+    public String describe(int event) {
+        int op = opcode(event);
+        StringBuilder builder = new StringBuilder(NAMES[op]).append('(');
+        switch (op) {
+            case ADD_TEAM:
+            case MOVE_TEAM:
+                builder.append(string(operand(event, 0))).append(", ")
+                        .append(operand(event, 1)).append(", ")
+                        .append(region(operand(event, 2)));
+                break;
+            case REMOVE_TEAM:
+            case REMOVE_PLAYER:
+            case RESET_PLAYER:
+            case SET_OT_LOSER:
+                builder.append(string(operand(event, 0)));
+                break;
+            case RENAME_TEAM:
+            case RENAME_PLAYER:
+            case ADD_OWNED_TEAM:
+            case ADD_PICK_FOUR_TEAM:
+            case ADD_CHOSEN_WINNER:
+                builder.append(string(operand(event, 0))).append(", ")
+                        .append(string(operand(event, 1)));
+                break;
+            case ADD_SCORE:
+            case ADD_PLAYER:
+            case SET_PREDICTED_SCORE:
+            case SET_NUM_SPOTS:
+                builder.append(string(operand(event, 0))).append(", ")
+                        .append(operand(event, 1));
+                break;
+            case SET_PAID:
+                builder.append(string(operand(event, 0))).append(", ")
+                        .append(operand(event, 1) != 0);
+                break;
+            case SET_PICK_FOUR_TEAMS:
+                builder.append(string(operand(event, 0)));
+                for (int team : operands(event, 1)) {
+                    builder.append(", ").append(string(team));
+                }
+                break;
+            case EDIT_SCORES:
+                builder.append(string(operand(event, 0))).append(", ")
+                        .append(Arrays.toString(operands(event, 1)));
+                break;
+            case SET_REGIONS:
+                builder.append(Arrays.toString(regions(event)));
+                break;
+            case SET_PRICING:
+                builder.append(pricing(event));
+                break;
+            case SET_PRIZE_MONEY:
+                builder.append(string(operand(event, 0))).append(", ")
+                        .append(toDouble(operand(event, 1), operand(event, 2)));
+                break;
+            case ASSIGN_TEAMS:
+                builder.append(toLong(operand(event, 0), operand(event, 1)));
+                break;
+            case ADD_SCORES:
+                int[] scores = operands(event, 0);
+                for (int i = 0; i < scores.length; i += 2) {
+                    builder.append(i == 0 ? "" : ", ").append(string(scores[i]))
+                            .append(' ').append(scores[i + 1]);
+                }
+                break;
+        }
+        return builder.append(')').toString();
+    }
+
+    /**
+     * Returns every event in the log, one per line, oldest first
+     */
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            builder.append(i).append(": ").append(describe(i)).append(String.format("%n"));
+        }
+        return builder.toString();
+    }
+
+    // Reading
+
+    int opcode(int event) {
+        return data[starts[event]];
+    }
+
+    int operand(int event, int index) {
+        return data[starts[event] + 1 + index];
+    }
+
+    /**
+     * Returns a counted list of operands, the count being the operand at the
+     * index passed
+     */
+    int[] operands(int event, int countIndex) {
+        int from = starts[event] + 2 + countIndex;
+        return Arrays.copyOfRange(data, from, from + operand(event, countIndex));
+    }
+
+    String string(int id) {
+        return id < 0 ? null : strings.get(id);
+    }
+
+    static Region region(int ordinal) {
+        return ordinal < 0 ? null : Region.values()[ordinal];
+    }
+
+    Region[] regions(int event) {
+        int[] ordinals = operands(event, 0);
+        Region[] regions = new Region[ordinals.length];
+        for (int i = 0; i < ordinals.length; i++) {
+            regions[i] = region(ordinals[i]);
+        }
+        return regions;
+    }
+
+    List<Double> pricing(int event) {
+        int[] bits = operands(event, 0);
+        List<Double> pricing = new ArrayList<Double>(bits.length / 2);
+        for (int i = 0; i < bits.length; i += 2) {
+            pricing.add(toDouble(bits[i], bits[i + 1]));
+        }
+        return pricing;
+    }
+
+    static double toDouble(int high, int low) {
+        return Double.longBitsToDouble(toLong(high, low));
+    }
+
+    static long toLong(int high, int low) {
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    // Writing
+
+    void addTeam(String name, int seed, Region region) {
+        append(ADD_TEAM, string(name), seed, region.ordinal());
+    }
+
+    void removeTeam(String name) {
+        append(REMOVE_TEAM, string(name));
+    }
+
+    void renameTeam(String name, String newName) {
+        append(RENAME_TEAM, string(name), string(newName));
+    }
+
+    void renamePlayer(String name, String newName) {
+        append(RENAME_PLAYER, string(name), string(newName));
+    }
+
+    void moveTeam(String name, int seed, Region region) {
+        append(MOVE_TEAM, string(name), seed, region.ordinal());
+    }
+
+    void addScore(String team, int score) {
+        append(ADD_SCORE, string(team), score);
+    }
+
+    void addScores(Map<String, Integer> scores) {
+        int[] event = new int[2 * scores.size() + 1];
+        event[0] = 2 * scores.size();
+        int i = 1;
+        for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+            event[i++] = string(entry.getKey());
+            event[i++] = entry.getValue();
+        }
+        append(ADD_SCORES, event);
+    }
+
+    void editScores(String team, List<Integer> scores) {
+        int[] event = new int[scores.size() + 2];
+        event[0] = string(team);
+        event[1] = scores.size();
+        int i = 2;
+        for (int score : scores) {
+            event[i++] = score;
+        }
+        append(EDIT_SCORES, event);
+    }
+
+    void addPlayer(String name, int spotsPurchased) {
+        append(ADD_PLAYER, string(name), spotsPurchased);
+    }
+
+    void removePlayer(String name) {
+        append(REMOVE_PLAYER, string(name));
+    }
+
+    void addOwnedTeam(String player, String team) {
+        append(ADD_OWNED_TEAM, string(player), string(team));
+    }
+
+    void assignTeams(long seed) {
+        append(ASSIGN_TEAMS, (int) (seed >>> 32), (int) seed);
+    }
+
+    void addPickFourTeam(String player, String team) {
+        append(ADD_PICK_FOUR_TEAM, string(player), string(team));
+    }
+
+    void addChosenWinner(String player, String team) {
+        append(ADD_CHOSEN_WINNER, string(player), string(team));
+    }
+
+    void setPickFourTeams(String player, List<String> teams) {
+        int[] event = new int[teams.size() + 2];
+        event[0] = string(player);
+        event[1] = teams.size();
+        int i = 2;
+        for (String team : teams) {
+            event[i++] = string(team);
+        }
+        append(SET_PICK_FOUR_TEAMS, event);
+    }
+
+    void setPredictedScore(String player, int score) {
+        append(SET_PREDICTED_SCORE, string(player), score);
+    }
+
+    void setPaid(String player, boolean paid) {
+        append(SET_PAID, string(player), paid ? 1 : 0);
+    }
+
+    void setNumSpots(String player, int spotsPurchased) {
+        append(SET_NUM_SPOTS, string(player), spotsPurchased);
+    }
+
+    void resetPlayer(String player) {
+        append(RESET_PLAYER, string(player));
+    }
+
+    void setOTloser(String team) {
+        append(SET_OT_LOSER, team == null ? -1 : string(team));
+    }
+
+    void setRegions(Region[] regions) {
+        int[] event = new int[regions.length + 1];
+        event[0] = regions.length;
+        for (int i = 0; i < regions.length; i++) {
+            event[i + 1] = regions[i] == null ? -1 : regions[i].ordinal();
+        }
+        append(SET_REGIONS, event);
+    }
+
+    void setPricing(List<Double> pricing) {
+        int[] event = new int[2 * pricing.size() + 1];
+        event[0] = 2 * pricing.size();
+        int i = 1;
+        for (double price : pricing) {
+            long bits = Double.doubleToLongBits(price);
+            event[i++] = (int) (bits >>> 32);
+            event[i++] = (int) bits;
+        }
+        append(SET_PRICING, event);
+    }
+
+    void setPrizeMoney(Prize prize, double prizeMoney) {
+        long bits = Double.doubleToLongBits(prizeMoney);
+        append(SET_PRIZE_MONEY, string(prize.getName()), (int) (bits >>> 32), (int) bits);
+    }
+
+    /**
+     * Returns the id of a string in the string table, adding it if needed
+     */
+    private int string(String string) {
+        Integer id = stringIds.get(string);
+        if (id == null) {
+            id = strings.size();
+            strings.add(string);
+            stringIds.put(string, id);
+        }
+        return id;
+    }
+
+    private void append(int opcode, int... operands) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, 2 * size);
+        }
+        if (length + operands.length + 1 > data.length) {
+            data = Arrays.copyOf(data, Math.max(2 * data.length, length + operands.length + 1));
+        }
+        starts[size++] = length;
+        data[length++] = opcode;
+        System.arraycopy(operands, 0, data, length, operands.length);
+        length += operands.length;
+    }
+}
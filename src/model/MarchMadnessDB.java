@@ -4,12 +4,17 @@ import model.player.*;
 import model.team.*;
 import model.prizes.*;
 import model.bracket.Bracket;
+import model.bracket.BracketListener;
+import model.bracket.BracketSnapshot;
+import model.bracket.GameResult;
+import model.bracket.PickFourSolver;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
 
 /**
  * The controlling class of the entire March Madness data. It keeps track of the
@@ -29,7 +34,10 @@ public class MarchMadnessDB {
 
     private Bracket bracket;
     private ContestManager manager;
-    private List<PlayerInterface> players;
+    private OwnerIndex owners;// Players of each team, for working out the contests
+    private PickFourSolver pickFourSolver;
+    private PickFourLeaderboard pickFourLeaderboard;
+    private PlayerRegistry players;
     private final int STARTING_SPOTS;
     
     private final int NUM_REGIONS = 4;
@@ -49,6 +57,10 @@ public class MarchMadnessDB {
     private Contest championTeam;
     
     private int leaderboardSize = 1;
+    private Long assignmentSeed;// Seed of the last draw of teams, null if there has not been one
+    
+    private GameLog log;// Every change made to the database, in order
+    private boolean recording = true;// False while a change made of other changes is running, or while replaying
     
 	//private int moneyPool;// ToDo
     /**
@@ -58,7 +70,7 @@ public class MarchMadnessDB {
      */
     public MarchMadnessDB() {
         bracket = new Bracket(NUM_REGIONS, TEAMS_PER_REGION);
-        players = new LinkedList<PlayerInterface>();
+        players = new PlayerRegistry();
         STARTING_SPOTS = NUM_REGIONS * TEAMS_PER_REGION;
 
         // Defaults
@@ -70,8 +82,150 @@ public class MarchMadnessDB {
         pricing.add(25.0);
         pricing.add(30.0);
 
-        manager = new ContestManager(bracket);
-        
+        owners = new OwnerIndex(NUM_REGIONS * TEAMS_PER_REGION);
+        manager = new ContestManager(bracket, owners);
+        pickFourSolver = new PickFourSolver(bracket);
+        pickFourLeaderboard = new PickFourLeaderboard(this);
+        log = new GameLog();
+    }
+    
+    /**
+     * Rebuilds a database from every event in a game log
+     *
+     * @param log The log to replay
+     * @return db A new database in the state the log describes
+     */
+    public static MarchMadnessDB replay(GameLog log) {
+        return replay(log, log.size());
+    }
+    
+    /**
+     * Rebuilds a database as it was after the first events of a game log.
+     * Contest results are only recalculated once, after the last event. The
+     * new database's log holds the events replayed, so replaying one event
+     * less than the size of a log undoes its last change.
+     *
+     * @param log The log to replay
+     * @param events The number of events to replay, starting from the oldest
+     * @return db A new database in the state after the events replayed
+     *
+     * @throws IllegalArgumentException if log is null or events is negative
+     * or larger than the size of the log
+     */
+    public static MarchMadnessDB replay(GameLog log, int events) {
+        if (log == null || events < 0 || events > log.size()) {
+            throw new IllegalArgumentException();
+        }
+        MarchMadnessDB db = new MarchMadnessDB();
+        db.recording = false;
+        for (int i = 0; i < events; i++) {
+            db.apply(log, i);
+        }
+        db.recording = true;
+        db.log = log.copy(events);
+        db.update();
+        return db;
+    }
+    
+    /**
+     * Applies a single event of a game log to this database
+     */
+    private void apply(GameLog log, int event) {
+        switch (log.opcode(event)) {
+            case GameLog.ADD_TEAM:
+                addTeam(log.string(log.operand(event, 0)), log.operand(event, 1), GameLog.region(log.operand(event, 2)));
+                break;
+            case GameLog.REMOVE_TEAM:
+                removeTeam(findTeam(log.string(log.operand(event, 0))));
+                break;
+            case GameLog.RENAME_TEAM:
+                renameTeam(findTeam(log.string(log.operand(event, 0))), log.string(log.operand(event, 1)));
+                break;
+            case GameLog.MOVE_TEAM:
+                moveTeam(findTeam(log.string(log.operand(event, 0))), log.operand(event, 1), GameLog.region(log.operand(event, 2)));
+                break;
+            case GameLog.ADD_SCORE:
+                addScore(findTeam(log.string(log.operand(event, 0))), log.operand(event, 1));
+                break;
+            case GameLog.ADD_SCORES:
+                Map<TeamInterface, Integer> batch = new LinkedHashMap<TeamInterface, Integer>();
+                int[] pairs = log.operands(event, 0);
+                for (int i = 0; i < pairs.length; i += 2) {
+                    batch.put(findTeam(log.string(pairs[i])), pairs[i + 1]);
+                }
+                addScores(batch);
+                break;
+            case GameLog.EDIT_SCORES:
+                List<Integer> scores = new LinkedList<Integer>();
+                for (int score : log.operands(event, 1)) {
+                    scores.add(score);
+                }
+                editScores(findTeam(log.string(log.operand(event, 0))), scores);
+                break;
+            case GameLog.ADD_PLAYER:
+                addPlayer(log.string(log.operand(event, 0)), log.operand(event, 1));
+                break;
+            case GameLog.REMOVE_PLAYER:
+                removePlayer(log.string(log.operand(event, 0)));
+                break;
+            case GameLog.RENAME_PLAYER:
+                renamePlayer(findPlayer(log.string(log.operand(event, 0))), log.string(log.operand(event, 1)));
+                break;
+            case GameLog.ADD_OWNED_TEAM:
+                addOwnedTeam(log.string(log.operand(event, 0)), log.string(log.operand(event, 1)));
+                break;
+            case GameLog.ASSIGN_TEAMS:
+                assignTeams(GameLog.toLong(log.operand(event, 0), log.operand(event, 1)));
+                break;
+            case GameLog.ADD_PICK_FOUR_TEAM:
+                addPickFourTeam(log.string(log.operand(event, 0)), log.string(log.operand(event, 1)));
+                break;
+            case GameLog.ADD_CHOSEN_WINNER:
+                addChosenWinner(findPlayer(log.string(log.operand(event, 0))), findTeam(log.string(log.operand(event, 1))));
+                break;
+            case GameLog.SET_PICK_FOUR_TEAMS:
+                List<TeamInterface> pickFour = new ArrayList<TeamInterface>();
+                for (int team : log.operands(event, 1)) {
+                    pickFour.add(findTeam(log.string(team)));
+                }
+                setPickFourTeams(findPlayer(log.string(log.operand(event, 0))), pickFour);
+                break;
+            case GameLog.SET_PREDICTED_SCORE:
+                setPredictedScore(findPlayer(log.string(log.operand(event, 0))), log.operand(event, 1));
+                break;
+            case GameLog.SET_PAID:
+                setPaid(findPlayer(log.string(log.operand(event, 0))), log.operand(event, 1) != 0);
+                break;
+            case GameLog.SET_NUM_SPOTS:
+                setNumSpots(findPlayer(log.string(log.operand(event, 0))), log.operand(event, 1));
+                break;
+            case GameLog.RESET_PLAYER:
+                resetPlayer(findPlayer(log.string(log.operand(event, 0))));
+                break;
+            case GameLog.SET_OT_LOSER:
+                String loser = log.string(log.operand(event, 0));
+                setOTloser(loser == null ? null : findTeam(loser));
+                break;
+            case GameLog.SET_REGIONS:
+                setRegionMatchups(log.regions(event));
+                break;
+            case GameLog.SET_PRICING:
+                setPricing(log.pricing(event));
+                break;
+            case GameLog.SET_PRIZE_MONEY:
+                setPrizeMoney(manager.findPrize(log.string(log.operand(event, 0))),
+                        GameLog.toDouble(log.operand(event, 1), log.operand(event, 2)));
+                break;
+        }
+    }
+    
+    /**
+     * Returns the log of every change made to this database, oldest first
+     *
+     * @return log The game log of this database
+     */
+    public GameLog getGameLog() {
+        return log;
     }
 
     /**
@@ -180,6 +334,9 @@ public class MarchMadnessDB {
         TeamInterface team = new Team(name.trim(), seed, region);
         int returnCode = bracket.addTeam(team);
         if (returnCode == 0) {// Add was successful, so add scores
+            if (recording) {
+                log.addTeam(team.getName(), seed, region);
+            }
             Iterator<Integer> itr = scores.iterator();
             while (itr.hasNext()) {
                 this.addScore(team, itr.next());
@@ -194,7 +351,11 @@ public class MarchMadnessDB {
      * @return
      */
     public int addTeam(TeamInterface team) {
-        return bracket.addTeam(team);
+        int returnCode = bracket.addTeam(team);
+        if (returnCode == 0 && recording) {
+            log.addTeam(team.getName(), team.getSeed(), team.getRegion());
+        }
+        return returnCode;
     }
 
     /**
@@ -222,7 +383,15 @@ public class MarchMadnessDB {
         if (player == null || team == null) {
             throw new IllegalArgumentException();
         }
-        return player.addTeam(team);
+        player.syncIds(bracket.getIdGeneration());
+        boolean added = player.addTeam(team);
+        if (added) {
+            owners.index(player);
+            if (recording) {
+                log.addOwnedTeam(player.getName(), team.getName());
+            }
+        }
+        return added;
     }
 
     /**
@@ -267,7 +436,7 @@ public class MarchMadnessDB {
             return 5;
         }
         while (itr.hasNext()) {
-            player.addPickFourTeam(itr.next());
+            addPickFourTeam(player, itr.next());
         }
         return 0;
     }
@@ -303,7 +472,15 @@ public class MarchMadnessDB {
             throw new IllegalArgumentException();
         }
         
-        return player.addPickFourTeam(team);
+        player.syncIds(bracket.getIdGeneration());
+        boolean added = player.addPickFourTeam(team);
+        if (added) {
+            owners.index(player);
+            if (recording) {
+                log.addPickFourTeam(player.getName(), team.getName());
+            }
+        }
+        return added;
     }
     
     public int addPlayer(String line)// Line: <Player> <SpotsPurchased>
@@ -349,6 +526,9 @@ public class MarchMadnessDB {
             }
             name = name.trim();
             players.add(new Player(name, spotsPurchased));
+            if (recording) {
+                log.addPlayer(name, spotsPurchased);
+            }
             return 0;
         }
         return 3;
@@ -392,6 +572,42 @@ public class MarchMadnessDB {
             return 3;
         }
         int returnCode = bracket.addScore(team, score);
+        if (returnCode == 0 && recording) {
+            log.addScore(team.getName(), score);
+        }
+        return returnCode;
+    }
+    
+    /**
+     * Adds a whole batch of scores, such as a round of games, at once. Every
+     * team and score is checked before any score is added, the scores are
+     * entered into the bracket in one pass and the contests are recalculated
+     * once afterwards.
+     *
+     * @param scores The score to add for each team
+     * @return errorCode 0: Added successfully; 1: A team has already lost; 2:
+     * A team is not in the bracket; 3: A score depends on a game that another
+     * score in the batch decides; 4: Illegal information entered. Nothing is
+     * added unless 0 is returned
+     */
+    public int addScores(Map<TeamInterface, Integer> scores) {
+        if (scores == null) {
+            return 4;
+        }
+        for (Map.Entry<TeamInterface, Integer> entry : scores.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null || entry.getValue() < 0) {
+                return 4;
+            }
+        }
+        int returnCode = bracket.addScores(scores);
+        if (returnCode == 0 && recording) {
+            Map<String, Integer> names = new LinkedHashMap<String, Integer>();
+            for (Map.Entry<TeamInterface, Integer> entry : scores.entrySet()) {
+                names.put(entry.getKey().getName(), entry.getValue());
+            }
+            log.addScores(names);
+            update();
+        }
         return returnCode;
     }
     
@@ -425,10 +641,115 @@ public class MarchMadnessDB {
             return 3;
         }
         if (p.addChosenTeam(t)) {
+            owners.index(p);
+            if (recording) {
+                log.addChosenWinner(p.getName(), t.getName());
+            }
             return 0;
         }
         return 4;
     }
+
+    /**
+     * Replaces a player's pick four teams. Pick four teams should be changed
+     * through the database rather than PlayerInterface.setPickFourTeams so
+     * the change is indexed and recorded in the game log.
+     *
+     * @param p The player
+     * @param teams The player's new pick four teams
+     * @throws IllegalArgumentException if p or teams is null or a team is null
+     */
+    public void setPickFourTeams(PlayerInterface p, List<TeamInterface> teams) {
+        if (p == null || teams == null || teams.contains(null)) {
+            throw new IllegalArgumentException();
+        }
+        p.setPickFourTeams(teams);
+        owners.index(p);
+        if (recording) {
+            List<String> names = new ArrayList<String>(teams.size());
+            for (TeamInterface team : teams) {
+                names.add(team.getName());
+            }
+            log.setPickFourTeams(p.getName(), names);
+        }
+    }
+
+    /**
+     * Sets the total score of the championship game a player predicted
+     *
+     * @param p The player
+     * @param score The predicted score, ignored if negative
+     * @throws IllegalArgumentException if p is null
+     */
+    public void setPredictedScore(PlayerInterface p, int score) {
+        if (p == null) {
+            throw new IllegalArgumentException();
+        }
+        int previous = p.getPredictedScore();
+        p.setPredictedScore(score);
+        if (recording && p.getPredictedScore() != previous) {
+            log.setPredictedScore(p.getName(), p.getPredictedScore());
+        }
+    }
+
+    /**
+     * Sets whether a player has paid the entry fee
+     *
+     * @param p The player
+     * @param paid True if the player has paid
+     * @throws IllegalArgumentException if p is null
+     */
+    public void setPaid(PlayerInterface p, boolean paid) {
+        if (p == null) {
+            throw new IllegalArgumentException();
+        }
+        boolean previous = p.hasPaid();
+        p.setPaid(paid);
+        if (recording && paid != previous) {
+            log.setPaid(p.getName(), paid);
+        }
+    }
+
+    /**
+     * Sets the number of spots a player purchased
+     *
+     * @param p The player
+     * @param spotsPurchased The number of spots, ignored if not positive
+     * @throws IllegalArgumentException if p is null
+     */
+    public void setNumSpots(PlayerInterface p, int spotsPurchased) {
+        if (p == null) {
+            throw new IllegalArgumentException();
+        }
+        int previous = p.getNumSpots();
+        p.setNumSpots(spotsPurchased);
+        if (recording && p.getNumSpots() != previous) {
+            log.setNumSpots(p.getName(), p.getNumSpots());
+        }
+    }
+
+    /**
+     * Clears everything a player entered or was given: owned teams, pick four
+     * teams, chosen winner, predicted score and payment. The player keeps
+     * their name and spots.
+     *
+     * @param p The player to reset
+     * @throws IllegalArgumentException if p is null
+     */
+    public void resetPlayer(PlayerInterface p) {
+        if (p == null) {
+            throw new IllegalArgumentException();
+        }
+        p.setPaid(false);
+        p.addChosenTeam(null);
+        p.setPredictedScore(0);
+        p.getTeams().clear();
+        p.getPickFourTeams().clear();
+        owners.index(p);
+        if (recording) {
+            log.resetPlayer(p.getName());
+        }
+    }
     
     public void moveTeam(TeamInterface team, int seed, Region region) {
         if (team == null || seed < 1 || seed > 16 || region == null) {
@@ -453,6 +774,9 @@ public class MarchMadnessDB {
         for (int score : scores) {
             bracket.addScore(newTeam, score);
         }
+        if (recording) {
+            log.moveTeam(newTeam.getName(), seed, region);
+        }
     }
 
     /**
@@ -472,6 +796,9 @@ public class MarchMadnessDB {
             }
         }
         bracket.editScores(team, scores);
+        if (recording) {
+            log.editScores(team.getName(), scores);
+        }
     }
 
     /**
@@ -489,17 +816,45 @@ public class MarchMadnessDB {
             return null;
         }
         
-        Iterator<PlayerInterface> itr = players.iterator();
-        int i = 0;
-        while (itr.hasNext()) {
-            PlayerInterface player = itr.next();
-            if (itr.next().getName().equalsIgnoreCase(name)) {
-                PlayerInterface p = players.remove(i);
-                return p;
+        PlayerInterface p = players.remove(name);
+        if (p != null) {
+            owners.remove(p);
+            if (recording) {
+                log.removePlayer(p.getName());
             }
-            i++;
         }
-        return null;
+        return p;
+    }
+    
+    /**
+     * Removes every player from the database
+     */
+    public void removeAllPlayers() {
+        for (PlayerInterface p : players.getPlayers()) {
+            removePlayer(p.getName());
+        }
+    }
+    
+    /**
+     * Renames a player. Players should be renamed through this method rather
+     * than PlayerInterface.setName so the database can still find the player
+     * by its new name.
+     *
+     * @param p The player to rename
+     * @param name The new name
+     * @return renamed True if the player was renamed, false if the name is
+     * blank or another player already has it
+     * @throws IllegalArgumentException if p is not in the database
+     */
+    public boolean renamePlayer(PlayerInterface p, String name) {
+        String oldName = (p == null) ? null : p.getName();
+        if (!players.rename(p, name)) {
+            return false;
+        }
+        if (recording && !oldName.equals(p.getName())) {
+            log.renamePlayer(oldName, p.getName());
+        }
+        return true;
     }
 
     /**
@@ -532,7 +887,7 @@ public class MarchMadnessDB {
             return null;
         }
         
-        for (PlayerInterface player : players) {
+        for (PlayerInterface player : players.getPlayers()) {
             if (player.getChosenWinner() != null && player.getChosenWinner().equals(removed)) {
                 player.addChosenTeam(null);
             }
@@ -541,6 +896,9 @@ public class MarchMadnessDB {
             
             player.getTeams().remove(removed);
         }
+        if (recording) {
+            log.removeTeam(removed.getName());
+        }
         return removed;
     }
     
@@ -577,7 +935,7 @@ public class MarchMadnessDB {
          * isn't ready
          */
         String points = ((this.bracketInitialized())
-                ? ("(" + p.getPickFourPoints() + "/" + (this.getPotentialPickFourPoints(p) + p.getPickFourPoints()) + ")") : "(0/0)");
+                ? ("(" + getPickFourPoints(p) + "/" + (this.getPotentialPickFourPoints(p) + getPickFourPoints(p)) + ")") : "(0/0)");
 
         /**
          * Prints a title and then the respective teams in two team rows
@@ -633,7 +991,7 @@ public class MarchMadnessDB {
         }
         playerInfo += "Pick Four Teams: ";
         if (bracket.initialized()) {
-            int points = p.getPickFourPoints();
+            int points = getPickFourPoints(p);
             playerInfo += "(" + points + "/"
                     + (getPotentialPickFourPoints(p)+points + " pts)\n");
         }
@@ -656,12 +1014,11 @@ public class MarchMadnessDB {
         String teamInfo = "";
         teamInfo += "Name: " + t.getName() + "\n";
         teamInfo += "Games:\n";
-        Iterator<TeamInterface> opItr = getOpponents(t).iterator();
-        Iterator<Integer> scoreItr = getScores(t).iterator();
-        for (int round = 1; scoreItr.hasNext() && opItr.hasNext(); round++) {
-            TeamInterface opponent = opItr.next();
-            teamInfo += "  -" + t.toString() + ": " + scoreItr.next() + " vs " + opponent.toString() + ": "
-                    + bracket.getScores(opponent, round).get(round - 1) + "\n";
+        GameResult[] games = new GameResult[bracket.getNumRounds()];
+        int numGames = bracket.getGames(t, games);
+        for (int i = 0; i < numGames && games[i].getScore() > 0 && games[i].getOpponent() != null; i++) {
+            teamInfo += "  -" + t.toString() + ": " + games[i].getScore() + " vs " + games[i].getOpponent().toString() + ": "
+                    + games[i].getOpponentScore() + "\n";
         }
         teamInfo += "Alive/Eliminated: ";
         if (t.is_alive()) {
@@ -687,20 +1044,55 @@ public class MarchMadnessDB {
     public int getPickFourPoints(String name) {
         PlayerInterface p = findPlayer(name);
         if (p != null) {
-            return p.getPickFourPoints();
+            return getPickFourPoints(p);
         }
         throw new IllegalArgumentException();
     }
+    
+    /**
+     * Returns how many pick four points a player has, read from the bracket's
+     * table of points per team
+     *
+     * @param p The player
+     * @return points The player's pick four points
+     */
+    public int getPickFourPoints(PlayerInterface p) {
+        p.syncIds(bracket.getIdGeneration());
+        return p.getPickFourPoints(bracket.getPickFourPoints());
+    }
+    
+    /**
+     * Scores the pick four teams of every player passed. Each player's picks
+     * are team ids, so this is a flat loop over int arrays into the bracket's
+     * table of points per team.
+     *
+     * @param players The players to score
+     * @return points The pick four points of each player, in the same order
+     */
+    public int[] scorePickFour(PlayerInterface[] players) {
+        int[] table = bracket.getPickFourPoints();
+        int[] points = new int[players.length];
+        for (int i = 0; i < players.length; i++) {
+            int total = 0;
+            players[i].syncIds(bracket.getIdGeneration());
+            for (int id : players[i].getPickFourIds()) {
+                total += table[id];
+            }
+            points[i] = total;
+        }
+        return points;
+    }
 
     /**
-     * Calculates the points that certain player could potentially still earn in
-     * the pick four contest if the players exists in the database. Throws
-     * exception if player isn't found, has no Pick Four Teams, and or player
-     * doesn't have four teams.
+     * Calculates the most points a player could still earn in the pick four
+     * contest, taking into account every way the remaining games could go.
+     * Picks that would meet each other are never both counted as winning that
+     * game. Answers are cached until the bracket changes.
      *
-     * @throws IllegalArgumentException
-     * @param name
-     * @return int total
+     * @throws IllegalArgumentException if p is null
+     * @param p The player
+     * @return int total The most points the player's picks can still earn
+     * @see PickFourSolver
      */
     public int getPotentialPickFourPoints(PlayerInterface p) {
         
@@ -708,91 +1100,61 @@ public class MarchMadnessDB {
             throw new IllegalArgumentException();
         }
         
-        List<TeamInterface> teams = new ArrayList<TeamInterface>(p.getPickFourTeams());
-        if (teams == null || teams.isEmpty()) {
-            return 0;
-        }
-        
-        int totalPts = 0;//Keeps track of the total points the player could still recieve 
-        /**
-         * Bubble sort by highest seed and removes teams that aren't alive
-         */
-        for (int i = 0; i < teams.size(); i++) {
-            TeamInterface highSeed = teams.get(i);
-            int highIndex = i;
-            for (int j = i + 1; j < teams.size() && highSeed.is_alive(); j++) {
-                TeamInterface temp = teams.get(j);
-                if (temp.getSeed() > highSeed.getSeed() && temp.is_alive()) {
-                    highSeed = temp;
-                    highIndex = j;
-                }
-            }
-            TeamInterface removed = teams.remove(highIndex);
-            /**
-             * If the next team to be moved is alive it will be the highest (or
-             * equivalent) seed compared to remaining
-             */
-            if (highSeed.is_alive()) {
-                teams.add(i, removed);
-                TeamInterface currTeam = teams.get(i);
-                /**
-                 * Total wins if current team wins it all
-                 */
-                int currMax = bracket.possibleWins(currTeam);
-                /**
-                 * Compares next team to higher (or equivalent) teams that are
-                 * already sorted
-                 */
-                for (int j = 0; j < i; j++) {
-                    TeamInterface tempTeam = teams.get(j);
-                    /**
-                     * The the most wins possible if all previous (higher/same
-                     * seeded) teams win as far as they can
-                     */
-                    if (tempTeam.is_alive()) {
-                        int gamesB4Matchup;
-                        try {
-                            gamesB4Matchup = bracket.gamesBeforeMatchup(currTeam, tempTeam);
-                        } catch (Exception e) {
-                            gamesB4Matchup = 0;
-                        }
-                        
-                        if (gamesB4Matchup < 0) {
-                            gamesB4Matchup = 0;
-                        }
-                        
-                        currMax = Math.min(currMax, currTeam.getWins() + gamesB4Matchup);
-                        //System.out.println("\t"+gamesB4Matchup+" games until "+currTeam+" plays "+tempTeam+". current Max:"+(currMax-currTeam.getWins())+" ");
-                    }
-                }
-                totalPts += currTeam.getSeed() * currMax;
-            } else { //Team was not alive so it was removed and all teams shift lift one index, so offset increment
-                i--;
-            }
-        }
-        
-        return totalPts;
-        
+        p.syncIds(bracket.getIdGeneration());
+        return pickFourSolver.maxRemainingPoints(p.getPickFourIds());
     }
     
-    public List<PlayerInterface> getPrizeWinner(PrizeType prizeType) {
-        return manager.getWinningPlayers(prizeType);
+    public List<PlayerInterface> getPrizeWinner(Prize prize) {
+        return manager.getWinningPlayers(prize);
     }
     
-    public List<TeamInterface> getPrizeWinnerTeam(PrizeType prizeType) {
-        return manager.getWinningTeams(prizeType);
+    public List<TeamInterface> getPrizeWinnerTeam(Prize prize) {
+        return manager.getWinningTeams(prize);
     }
     
-    public double getPrizeMoney(PrizeType prizeType) {
-        return manager.getPrizeMoney(prizeType);
+    public double getPrizeMoney(Prize prize) {
+        return manager.getPrizeMoney(prize);
     }
     
-    public void setPrizeMoney(PrizeType prizeType, double prizeMoney) {
-        manager.setPrizeMoney(prizeType, prizeMoney);
+    public void setPrizeMoney(Prize prize, double prizeMoney) {
+        if (manager.setPrizeMoney(prize, prizeMoney) && recording) {
+            log.setPrizeMoney(prize, prizeMoney);
+        }
     }
     
     public void update() {
-        manager.update(pricing,players);
+        for (PlayerInterface p : players.getPlayers()) {
+            p.syncIds(bracket.getIdGeneration());
+        }
+        // Catches players changed without going through the database
+        owners.sync(players.getPlayers(), bracket.getIdGeneration());
+        manager.update(pricing,players.getPlayers());
+    }
+
+    /**
+     * Turns checking each update of the contests against working them all
+     * out from scratch on or off. An update that finds different winners
+     * throws IllegalStateException.
+     *
+     * @param verifying True to check each update
+     */
+    public void setVerifyContests(boolean verifying) {
+        manager.setVerifying(verifying);
+    }
+
+    /**
+     * Adds a rule deciding one or more contests, replacing the rules of its
+     * prizes. A rule for a side contest brings its own prize, which gets a
+     * contest of its own. Rules are code rather than data, so they are not
+     * recorded in the game log, and a replay only sets the prize money of
+     * prizes the new database has.
+     *
+     * @param rule The rule to add
+     * @throws IllegalArgumentException if rule is null or has no prizes
+     * @see ContestRule
+     */
+    public void addContestRule(ContestRule rule) {
+        manager.addRule(rule);
     }
 
     /**
@@ -809,104 +1171,190 @@ public class MarchMadnessDB {
     }
 
     /**
-     * Needs to be written cleaner and faster
+     * Returns a list of the players (in descending order) with the highest pick
+     * four points, ties broken by potential points and then by name
      *
+     * @param leaderboardSize The most players to return, -1 for every player
+     * @return List<PlayerInterface>
      */
     public List<PlayerInterface> getPickFourLeaderBoard(int leaderboardSize) {
         List<PlayerInterface> leaderboard = new ArrayList<PlayerInterface>();
-        
-        if (players.isEmpty()) {
-            return leaderboard;
-        }
-        
-        Iterator<PlayerInterface> itr = players.iterator();
-        while (itr.hasNext()) {
-            PlayerInterface player = itr.next();
-            
-            for (int i = 0; i < leaderboard.size(); i++) {
-                PlayerInterface temp = leaderboard.get(i);
-                if (player.getPickFourPoints() > temp.getPickFourPoints()) {
-                    leaderboard.add(i, player);
-                    break;
-                } else if (player.getPickFourPoints() == temp.getPickFourPoints()
-                        && this.getPotentialPickFourPoints(player) > this.getPotentialPickFourPoints(temp)) {
-                    leaderboard.add(i, player);
-                    break;
-                    
-                } else if (i == leaderboard.size() - 1 && (leaderboardSize == -1 || leaderboard.size() <= leaderboardSize)) {
-                    leaderboard.add(player);
-                    break;
-                }
-            }
-            if (leaderboard.isEmpty()) {
-                leaderboard.add(player);
-            }
-            while (leaderboardSize != -1 && leaderboard.size() > leaderboardSize) {
-                leaderboard.remove(leaderboard.size() - 1);
-            }
+        for (Standing standing : getPickFourStandings(0, leaderboardSize)) {
+            leaderboard.add(standing.getPlayer());
         }
         return leaderboard;
     }
     
+    /**
+     * Returns the pick four standings of the first leaderboardSize players
+     *
+     * @return standings The top of the pick four leaderboard, best first
+     */
+    public List<Standing> getPickFourStandings() {
+        return getPickFourStandings(0, leaderboardSize);
+    }
+    
+    /**
+     * Returns a page of the pick four leaderboard. Pages are not limited by
+     * the leaderboard size, so the whole leaderboard can be paged through.
+     * Players are ranked by points, then potential points, then name, and
+     * players with the same points share a rank.
+     *
+     * @param offset The number of places to skip from the top
+     * @param count The most standings to return, -1 for every standing after
+     * the offset
+     * @return standings The standings of the page, best first
+     *
+     * @throws IllegalArgumentException if offset is negative or count is less
+     * than -1
+     */
+    public List<Standing> getPickFourStandings(int offset, int count) {
+        return pickFourLeaderboard.rank(players.getPlayers(), offset, count);
+    }
+    
+    /**
+     * Returns the first leaderboardSize players ordered by how many of their
+     * teams are still alive, players with the same count in name order
+     *
+     * @return leaderboard The top of the teams alive leaderboard
+     */
     public List<PlayerInterface> getPlayerLeaderboard() {
-        List<PlayerInterface> leaderboard = this.getPlayers();
-        PlayerInterface[] array = new PlayerInterface[leaderboard.size()];
-        leaderboard.toArray(array);
+        List<PlayerInterface> leaderboard = new ArrayList<PlayerInterface>();
+        for (Standing standing : getTeamsAliveStandings()) {
+            leaderboard.add(standing.getPlayer());
+        }
+        return leaderboard;
+    }
+    
+    /**
+     * Returns the standings of the first leaderboardSize players by how many of
+     * their teams are still alive. Players with the same count share a rank
+     * and are listed in name order.
+     *
+     * The counts are bounded by the number of teams, so the players are placed
+     * with a counting sort. Players are read in name order and each count's
+     * places are filled in that order, which keeps ties sorted by name. Ranks
+     * are given in the same pass.
+     *
+     * @return standings The top of the teams alive leaderboard, best first
+     */
+    public List<Standing> getTeamsAliveStandings() {
+        List<PlayerInterface> byName = players.getPlayers();
+        int n = byName.size();
         
-        int j; // the number of items sorted so far
-        PlayerInterface key; // the item to be inserted
-        int i;
+        // Each player's count is one AND and bit count against the alive mask
+        long[] aliveMask = bracket.getAliveMask();
+        PlayerInterface[] array = new PlayerInterface[n];
+        int[] alive = new int[n];
+        int maxAlive = 0;
+        int index = 0;
+        for (PlayerInterface player : byName) {
+            array[index] = player;
+            player.syncIds(bracket.getIdGeneration());
+            alive[index] = player.numTeamsAlive(aliveMask);
+            maxAlive = Math.max(maxAlive, alive[index]);
+            index++;
+        }
         
-        for (j = 1; j < array.length; j++) // Start with 1 (not 0)
-        {
-            key = array[j];
-            for (i = j - 1; (i >= 0) && (array[i].numTeamsAlive() < key.numTeamsAlive()); i--) // Smaller
-            // values
-            // are
-            // moving
-            // up
-            {
-                array[i + 1] = array[i];
-            }
-            array[i + 1] = key; // Put the key in its proper location
+        // start[maxAlive - count] is the first place of the players with count teams alive
+        int[] start = new int[maxAlive + 2];
+        for (int i = 0; i < n; i++) {
+            start[maxAlive - alive[i] + 1]++;
+        }
+        for (int count = 1; count < start.length; count++) {
+            start[count] += start[count - 1];
         }
-        leaderboard = new LinkedList<PlayerInterface>();
-        for (int index = 0; index < array.length && (index < this.leaderboardSize || leaderboardSize == -1); index++) {
-            leaderboard.add(array[index]);
+        int[] next = start.clone();
+        Standing[] places = new Standing[n];
+        for (int i = 0; i < n; i++) {
+            int bucket = maxAlive - alive[i];
+            places[next[bucket]++] = new Standing(array[i], start[bucket] + 1, alive[i], 0);
         }
         
-        return leaderboard;
+        List<Standing> standings = new ArrayList<Standing>();
+        for (int i = 0; i < n && (i < this.leaderboardSize || leaderboardSize == -1); i++) {
+            standings.add(places[i]);
+        }
+        return standings;
     }
     
     public List<TeamInterface> getOpponents(TeamInterface team) {
         return bracket.getOpponents(team);
     }
     
+    /**
+     * Randomly draws the teams of every player from a new seed
+     *
+     * @return errorCode 0: Teams assigned; 1: The bracket is not full or
+     * there are spots left to buy
+     * @see #assignTeams(long)
+     */
     public int assignTeams() {
+        return assignTeams(TeamDraw.newSeed());
+    }
+    
+    /**
+     * Draws the teams of every player from the seed passed. Teams already
+     * owned are given up first. The same seed with the same teams and players
+     * always gives the same draw, so a draw can be replayed or checked from
+     * its seed, and the seed is what the game log records.
+     *
+     * @param seed The seed of the draw
+     * @return errorCode 0: Teams assigned; 1: The bracket is not full or
+     * there are spots left to buy
+     * @see TeamDraw
+     */
+    public int assignTeams(long seed) {
         if (!bracket.initialized() || (this.spotsRemaining() != 0)) {
             return 1;
         }
-
+        
+        boolean record = recording;
+        recording = false;
         // Get rid of them if there are any
         clearAssignedTeams();
         
-        Random generator = new Random();
-        List<TeamInterface> teams = new LinkedList<TeamInterface>(bracket.getTeams());
-        Iterator<PlayerInterface> itr = players.iterator();
-        while (itr.hasNext() && teams.size() > 0) {
-            PlayerInterface player = itr.next();
-            for (int i = 0; i < player.getNumSpots() && teams.size() > 0; i++) {
-                int index = generator.nextInt(teams.size());
-                player.addTeam(teams.remove(index));
+        TeamDraw draw = getTeamDraw();
+        TeamInterface[][] drawn = draw.assign(seed);
+        List<PlayerInterface> drawing = draw.getPlayers();
+        for (int p = 0; p < drawn.length; p++) {
+            for (TeamInterface team : drawn[p]) {
+                addOwnedTeam(drawing.get(p), team);
             }
         }
+        recording = record;
+        assignmentSeed = seed;
+        if (recording) {
+            log.assignTeams(seed);
+        }
         return 0;
     }
     
+    /**
+     * Returns a draw of the bracket's teams among the players, both in name
+     * order, for replaying or analysing draws without changing the database
+     *
+     * @return draw The draw of the current teams and players
+     */
+    public TeamDraw getTeamDraw() {
+        return new TeamDraw(getTeams(), getPlayers());
+    }
+    
+    /**
+     * Returns the seed of the last draw made by assignTeams
+     *
+     * @return seed The seed of the last draw, null if teams have not been drawn
+     */
+    public Long getAssignmentSeed() {
+        return assignmentSeed;
+    }
+    
     private void clearAssignedTeams() {
-        Iterator<PlayerInterface> itr = players.iterator();
+        Iterator<PlayerInterface> itr = players.getPlayers().iterator();
         while (itr.hasNext()) {
-            itr.next().getTeams().clear();
+            PlayerInterface player = itr.next();
+            player.getTeams().clear();
+            owners.index(player);
         }
     }
 
@@ -917,6 +1365,9 @@ public class MarchMadnessDB {
      */
     public void setOTloser(TeamInterface loser) {
          manager.setOTLoserTeam(loser);
+         if (recording) {
+             log.setOTloser(loser == null ? null : loser.getName());
+         }
     }
 
     /**
@@ -963,35 +1414,12 @@ public class MarchMadnessDB {
                     index++;
                 }
             }
-            List<TeamInterface> teams = getTeams();
-            List<TeamInterface> teamsCopy = new ArrayList<TeamInterface>(teams.size());
-            List<List<Integer>> scoreLists = new LinkedList<List<Integer>>();
-            
-            List<Integer> zeroes = new LinkedList<>();
-            zeroes.add(0);
-            for (TeamInterface team : teams) {
-                scoreLists.add(getScores(team));
-                bracket.editScores(team, zeroes);
-                
-            }
-            
-            while (!teams.isEmpty()) {
-                teamsCopy.add(bracket.removeTeam(teams.get(0)));
-            }
-
-            //db = new MarchMadnessDB();
-            bracket.setRegions(newRegionMatchups);
-            
-            Iterator<TeamInterface> teamItr = teamsCopy.iterator();
-            Iterator<List<Integer>> scoreListItr = scoreLists.iterator();
-            
-            while (teamItr.hasNext() && scoreListItr.hasNext()) {
-                TeamInterface team = teamItr.next();
-                List<Integer> scores = scoreListItr.next();
-                addTeam(team);
-                for (int score : scores) {
-                    this.addScore(team, score);
-                }
+            boolean record = recording;
+            recording = false;
+            bracket.permuteRegions(newRegionMatchups);
+            recording = record;
+            if (recording) {
+                log.setRegions(newRegionMatchups);
             }
         }
         
@@ -1009,15 +1437,29 @@ public class MarchMadnessDB {
             throw new IllegalArgumentException();
         }
         
-        name = name.trim().toLowerCase();
-        Iterator<TeamInterface> itr = bracket.getTeams().iterator();
-        while (itr.hasNext()) {
-            TeamInterface team = itr.next();
-            if (team.getName().toLowerCase().equals(name)) {
-                return team;
-            }
+        return bracket.findTeam(name);
+    }
+    
+    /**
+     * Renames a team in the database. The new name must not match the name of
+     * another team in the database.
+     *
+     * @param team The team to rename
+     * @param name The new name of the team
+     * @return errorCode 0: If renamed successfully. 1: Team is not in the
+     * database. 2: A Team with this name already exists in the bracket 3:
+     * Illegal information entered.
+     */
+    public int renameTeam(TeamInterface team, String name) {
+        if (team == null || name == null || name.trim().length() < 1) {
+            return 3;
         }
-        return null;
+        String oldName = team.getName();
+        int returnCode = bracket.renameTeam(team, name);
+        if (returnCode == 0 && recording) {
+            log.renameTeam(oldName, team.getName());
+        }
+        return returnCode;
     }
 
     /**
@@ -1031,20 +1473,12 @@ public class MarchMadnessDB {
         if (name == null) {
             throw new IllegalArgumentException();
         }
-        name = name.trim().toLowerCase();
-        Iterator<PlayerInterface> itr = players.iterator();
-        while (itr.hasNext()) {
-            PlayerInterface player = itr.next();
-            if (player != null && player.getName().toLowerCase().equals(name)) {
-                return player;
-            }
-        }
-        return null;
+        return players.find(name);
     }
     
     public int findLongestPlayerName() {
         int longest = 0;
-        for(PlayerInterface player: players) {
+        for(PlayerInterface player: players.getPlayers()) {
             int temp = player.getName().length();
             if(temp > longest)
                 longest = temp;
@@ -1054,7 +1488,7 @@ public class MarchMadnessDB {
     
     public int spotsRemaining() {
         int remaining = STARTING_SPOTS;
-        for (PlayerInterface player : players) {
+        for (PlayerInterface player : players.getPlayers()) {
             remaining -= player.getNumSpots();
         }
         return remaining;
@@ -1064,6 +1498,70 @@ public class MarchMadnessDB {
         return bracket.getChampion();
     }
     
+    /**
+     * Returns a team mask of the teams that have not lost a game. The array belongs to the
+     * bracket and must not be modified.
+     * 
+     * @return aliveMask Team mask of the teams still in the tournament
+     * @see model.team.TeamMask
+     */
+    public long[] getAliveMask() {
+        return bracket.getAliveMask();
+    }
+    
+    /**
+     * @return numTeamsAlive The number of teams in the bracket that have not lost a game
+     */
+    public int numTeamsAlive() {
+        return bracket.numTeamsAlive();
+    }
+    
+    /**
+     * Counts the teams a player owns that have not lost a game
+     * 
+     * @param p The player
+     * @return numTeamsAlive The number of the player's teams that are still alive
+     */
+    public int numTeamsAlive(PlayerInterface p) {
+        p.syncIds(bracket.getIdGeneration());
+        return p.numTeamsAlive(bracket.getAliveMask());
+    }
+    
+    /**
+     * Returns an immutable copy of the bracket as of the last score entered. Readers on other
+     * threads should use the snapshot instead of the live bracket.
+     * 
+     * @return snapshot The latest published version of the bracket
+     */
+    public BracketSnapshot getBracketSnapshot() {
+        return bracket.getSnapshot();
+    }
+    
+    /**
+     * Registers a listener for game results in the bracket
+     *
+     * @param listener The listener to add
+     * @param dispatch When the listener receives events
+     * @see Bracket#addBracketListener(BracketListener, BracketListener.Dispatch)
+     */
+    public void addBracketListener(BracketListener listener, BracketListener.Dispatch dispatch) {
+        bracket.addBracketListener(listener, dispatch);
+    }
+    
+    public void removeBracketListener(BracketListener listener) {
+        bracket.removeBracketListener(listener);
+    }
+    
+    /**
+     * Delivers the bracket events held for QUEUED listeners on the calling
+     * thread
+     *
+     * @return numEvents The number of events delivered
+     */
+    public int dispatchBracketEvents() {
+        return bracket.dispatchQueuedEvents();
+    }
+    
     public boolean bracketInitialized() {
         return bracket.initialized();
     }
@@ -1072,16 +1570,21 @@ public class MarchMadnessDB {
         return bracket.hasBegun();
     }
     
+    /**
+     * Returns the players in name order. The list is a read only view that
+     * is not rebuilt until players are added, removed or renamed.
+     *
+     * @return players Every player in name order
+     */
     public List<PlayerInterface> getPlayers() {
-        Collections.sort(players);
-        return players;
+        return players.getPlayers();
     }
     
     public boolean teamsAssigned() {
         if (this.spotsRemaining() != 0) {
             return false;
         }
-        for (PlayerInterface player : players) {
+        for (PlayerInterface player : players.getPlayers()) {
             if (player.getTeams().size() != player.getNumSpots()) {
                 return false;
             }
@@ -1096,10 +1599,14 @@ public class MarchMadnessDB {
         return bracket.getTeam(seed, region);
     }
     
+    /**
+     * Returns the teams in name order. The list is a read only view kept in
+     * order by the bracket as teams are added, removed and renamed.
+     *
+     * @return teams Every team in the bracket in name order
+     */
     public List<TeamInterface> getTeams() {
-        List<TeamInterface> teams = bracket.getTeams();
-        Collections.sort(teams);
-        return teams;
+        return bracket.getTeams();
     }
     
     public List<Double> getPricing() {
@@ -1109,11 +1616,18 @@ public class MarchMadnessDB {
     public void setPricing(List<Double> pricing) {
         if (pricing != null) {
             this.pricing = pricing;
+            if (recording) {
+                log.setPricing(pricing);
+            }
         }
     }
     
-    public PrizeType[] getPrizes() {
-        return PrizeType.values();
+    /**
+     * @return prizes The prize of every contest, including those of side
+     * contests added with addContestRule
+     */
+    public Prize[] getPrizes() {
+        return manager.getPrizes();
     }
     
     public int getLeaderboardSize() {
@@ -1126,6 +1640,17 @@ public class MarchMadnessDB {
         }
     }
     
+    /**
+     * Writes the bracket into the Appendable passed, in the same form as
+     * toString
+     *
+     * @param out Where the bracket is written
+     * @throws IOException if out throws one
+     */
+    public void renderBracket(Appendable out) throws IOException {
+        bracket.render(out);
+    }
+    
     public String toString() {
         return bracket.toString();
     }
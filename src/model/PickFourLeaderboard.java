@@ -0,0 +1,121 @@
+package model;
+
+import model.player.PlayerInterface;
+import model.player.Standing;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Ranks players by pick four points, breaking ties by the most points they
+ * could still end with and then by name.
+ *
+ * Each player's points and potential are worked out once per ranking. Points
+ * come from the bracket's table of points per team and potential from the
+ * PickFourSolver, which only solves a set of picks once per version of the
+ * bracket. A page near the top of the leaderboard is picked out with a heap
+ * bounded to the size of the page, while longer pages sort every player once.
+ *
+ * @author claymackenthun
+ *
+ * @see MarchMadnessDB#getPickFourStandings(int, int)
+ */
+final class PickFourLeaderboard {
+
+    private final MarchMadnessDB db;
+
+    PickFourLeaderboard(MarchMadnessDB db) {
+        this.db = db;
+    }
+
+    /**
+     * Returns a page of the leaderboard
+     *
+     * @param players Every player in the contest, in name order
+     * @param offset The number of places to skip from the top
+     * @param count The most standings to return, -1 for every standing after
+     * the offset
+     * @return standings The standings of the page, best first
+     *
+     * @throws IllegalArgumentException if offset is negative or count is less
+     * than -1
+     */
+    List<Standing> rank(List<PlayerInterface> players, int offset, int count) {
+        if (offset < 0 || count < -1) {
+            throw new IllegalArgumentException();
+        }
+        PlayerInterface[] array = players.toArray(new PlayerInterface[players.size()]);
+        int n = array.length;
+        int end = (count == -1) ? n : (int) Math.min(n, (long) offset + count);
+        List<Standing> standings = new ArrayList<Standing>(Math.max(0, end - offset));
+        if (offset >= end) {
+            return standings;
+        }
+
+        final int[] points = db.scorePickFour(array);
+        final int[] potential = new int[n];
+        for (int i = 0; i < n; i++) {
+            potential[i] = points[i] + db.getPotentialPickFourPoints(array[i]);
+        }
+        Comparator<Integer> best = new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                if (points[a] != points[b]) {
+                    return points[b] - points[a];
+                }
+                if (potential[a] != potential[b]) {
+                    return potential[b] - potential[a];
+                }
+                return a - b;
+            }
+        };
+
+        Integer[] order = top(n, end, best);
+
+        // Ranks depend on the places above the page, so they are counted from the top
+        int rank = 1;
+        for (int i = 0; i < end; i++) {
+            if (i > 0 && points[order[i]] != points[order[i - 1]]) {
+                rank = i + 1;
+            }
+            if (i >= offset) {
+                standings.add(new Standing(array[order[i]], rank, points[order[i]], potential[order[i]]));
+            }
+        }
+        return standings;
+    }
+
+    /**
+     * Returns the indexes of the best k of n players in order. When k is small
+     * compared to n only a heap of k players is kept, otherwise every player
+     * is sorted.
+     */
+    private static Integer[] top(int n, int k, Comparator<Integer> best) {
+        Integer[] order = new Integer[k];
+        if (2 * k >= n) {
+            Integer[] all = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            Arrays.sort(all, best);
+            System.arraycopy(all, 0, order, 0, k);
+            return order;
+        }
+        // The head of the heap is the worst of the best k seen so far
+        PriorityQueue<Integer> heap = new PriorityQueue<Integer>(k, best.reversed());
+        for (int i = 0; i < n; i++) {
+            if (heap.size() < k) {
+                heap.add(i);
+            } else if (best.compare(i, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+        for (int i = k - 1; i >= 0; i--) {
+            order[i] = heap.poll();
+        }
+        return order;
+    }
+}
@@ -0,0 +1,200 @@
+package model;
+
+import model.player.PlayerInterface;
+import model.team.TeamInterface;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Draws which players own which teams. The team ids are shuffled with
+ * Fisher-Yates using a SplittableRandom made from a seed, and the shuffled
+ * teams are handed out in player order, each player taking as many teams as
+ * spots they bought. The same seed, teams and players always give the same
+ * draw, so a draw can be checked or replayed from its seed.
+ *
+ * Teams and players are kept in the order they were passed. The database
+ * passes both in name order, which does not depend on the order they were
+ * entered in.
+ *
+ * @author claymackenthun
+ *
+ * @see MarchMadnessDB#assignTeams(long)
+ */
+public final class TeamDraw {
+
+    private final int[] teamIds;// Ids of the teams in the order given
+    private final TeamInterface[] teamsById;// Teams indexed by their id
+    private final PlayerInterface[] players;
+    private final int[] spots;// Spots bought by each player
+    private final int maxSeed;
+
+    /**
+     * Creates a draw of the teams passed among the players passed
+     *
+     * @param teams The teams to draw from. Every team must have an id from
+     * its bracket
+     * @param players The players drawing, in the order they take their teams
+     *
+     * @throws IllegalArgumentException if either list is null or a team has
+     * no id
+     */
+    public TeamDraw(List<TeamInterface> teams, List<PlayerInterface> players) {
+        if (teams == null || players == null) {
+            throw new IllegalArgumentException();
+        }
+        teamIds = new int[teams.size()];
+        int maxId = -1;
+        int maxSeed = 0;
+        for (int i = 0; i < teamIds.length; i++) {
+            TeamInterface team = teams.get(i);
+            if (team.getId() < 0) {
+                throw new IllegalArgumentException();
+            }
+            teamIds[i] = team.getId();
+            maxId = Math.max(maxId, team.getId());
+            maxSeed = Math.max(maxSeed, team.getSeed());
+        }
+        teamsById = new TeamInterface[maxId + 1];
+        for (TeamInterface team : teams) {
+            teamsById[team.getId()] = team;
+        }
+        this.maxSeed = maxSeed;
+        this.players = players.toArray(new PlayerInterface[players.size()]);
+        spots = new int[this.players.length];
+        for (int i = 0; i < spots.length; i++) {
+            spots[i] = this.players[i].getNumSpots();
+        }
+    }
+
+    /**
+     * Returns a new seed for a draw that has not been made before
+     *
+     * @return seed A seed to pass to assign
+     */
+    public static long newSeed() {
+        return new SplittableRandom().nextLong();
+    }
+
+    /**
+     * Shuffles the team ids with Fisher-Yates
+     *
+     * @param seed The seed of the draw
+     * @return ids The team ids in the order they are drawn
+     */
+    public int[] shuffle(long seed) {
+        int[] ids = teamIds.clone();
+        shuffle(ids, new SplittableRandom(seed));
+        return ids;
+    }
+
+    private static void shuffle(int[] ids, SplittableRandom random) {
+        for (int i = ids.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = ids[i];
+            ids[i] = ids[j];
+            ids[j] = temp;
+        }
+    }
+
+    /**
+     * Makes the draw for a seed
+     *
+     * @param seed The seed of the draw
+     * @return teams The teams drawn by each player, in player order. A
+     * player's array is shorter than their spots if the teams ran out
+     */
+    public TeamInterface[][] assign(long seed) {
+        int[] ids = shuffle(seed);
+        TeamInterface[][] teams = new TeamInterface[players.length][];
+        int next = 0;
+        for (int p = 0; p < players.length; p++) {
+            int count = Math.max(0, Math.min(spots[p], ids.length - next));
+            teams[p] = new TeamInterface[count];
+            for (int i = 0; i < count; i++) {
+                teams[p][i] = teamsById[ids[next++]];
+            }
+        }
+        return teams;
+    }
+
+    /**
+     * Returns the seeds of a number of candidate draws. Each candidate can be
+     * made on its own with assign, and the same seed always gives the same
+     * candidates.
+     *
+     * @param seed The seed the candidates are made from
+     * @param draws The number of candidates
+     * @return seeds The seed of each candidate draw
+     */
+    public static long[] candidateSeeds(long seed, int draws) {
+        if (draws < 0) {
+            throw new IllegalArgumentException();
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] seeds = new long[draws];
+        for (int d = 0; d < draws; d++) {
+            seeds[d] = random.nextLong();
+        }
+        return seeds;
+    }
+
+    /**
+     * Counts how often each player draws each seed over a number of candidate
+     * draws, to check that the draw is fair. The candidates are made in
+     * parallel; the counts do not depend on how they are split up.
+     *
+     * @param seed The seed the candidates are made from
+     * @param draws The number of candidate draws
+     * @return counts The number of teams of each seed each player drew over
+     * all candidates, indexed by player then seed
+     */
+    public long[][] seedDistribution(long seed, final int draws) {
+        final long[] seeds = candidateSeeds(seed, draws);
+        int chunks = Math.max(1, Math.min(draws, Runtime.getRuntime().availableProcessors() * 4));
+        final long[][][] partial = new long[chunks][][];
+        final int chunkSize = (draws + chunks - 1) / chunks;
+        IntStream.range(0, chunks).parallel().forEach(new IntConsumer() {
+            @Override
+            public void accept(int chunk) {
+                long[][] counts = new long[players.length][maxSeed + 1];
+                int[] ids = new int[teamIds.length];
+                int end = Math.min(draws, (chunk + 1) * chunkSize);
+                for (int d = chunk * chunkSize; d < end; d++) {
+                    System.arraycopy(teamIds, 0, ids, 0, ids.length);
+                    shuffle(ids, new SplittableRandom(seeds[d]));
+                    int next = 0;
+                    for (int p = 0; p < players.length && next < ids.length; p++) {
+                        for (int i = 0; i < spots[p] && next < ids.length; i++) {
+                            counts[p][teamsById[ids[next++]].getSeed()]++;
+                        }
+                    }
+                }
+                partial[chunk] = counts;
+            }
+        });
+        long[][] counts = new long[players.length][maxSeed + 1];
+        for (long[][] chunk : partial) {
+            for (int p = 0; p < players.length; p++) {
+                for (int s = 0; s <= maxSeed; s++) {
+                    counts[p][s] += chunk[p][s];
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @return players The players of the draw, in the order they take their
+     * teams
+     */
+    public List<PlayerInterface> getPlayers() {
+        List<PlayerInterface> list = new ArrayList<PlayerInterface>(players.length);
+        for (PlayerInterface player : players) {
+            list.add(player);
+        }
+        return list;
+    }
+}
@@ -1,16 +1,31 @@
 package model.bracket;
 
 import model.team.*;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * A class that represents the a bracket to keep track of the games and progress of teams. 
  * The teams in the bracket must descend from the TeamInterface. The bracket is primarily created
- * to keep the progress of the March Madness Tournament. At the moment it has only been tested
- * and works with 4 Regions and 16 Teams Per Region
+ * to keep the progress of the March Madness Tournament. Regions can hold any power of two
+ * number of teams, the tournament itself uses 4 Regions and 16 Teams Per Region
+ * 
+ * The slots of the bracket are kept in parallel primitive arrays instead of one object per slot.
+ * Each team is interned to a small id when it is added, and every slot stores that id, the score
+ * the team had in the game and whether it won. Advancing a team writes into the arrays rather than
+ * allocating, which keeps walks over the bracket cheap and cache friendly.
  * 
  * @author Clay Mackenthun
  * 
@@ -22,40 +37,155 @@ public class Bracket
 	private int teamsPerRegion;//Must be power of two
 	private int beginIndex;//Beginning of subarray of all teams
 	private int endIndex;//End of subarray of all teams
-	private HalfGame[] bracket;
-	private List<TeamInterface> teams;
+	private short[] slotTeam;//Id of the team in each slot, EMPTY if no team has been placed there
+	private int[] slotScore;//Score of the team in each slot, 0 if no score has been entered
+	private BitSet winners;//Set for each slot whose team won the game it played in
+	private BitSet changedSlots;//Slots whose team, score or result has been written by the current edit
+	private BitSet dirtySlots;//Slots whose team, score or result has changed since the last snapshot was published
+	private boolean rosterChanged;//A team has been added or removed since the last snapshot was published
+	private BitSet dirtyTeams;//Ids of teams whose name, wins or status has changed since the last snapshot was published
+	private volatile BracketSnapshot snapshot;//Latest published version of the bracket
+	private final BracketRenderer renderer = new BracketRenderer();//Keeps the text of each round between renders
+	private final List<BracketEvent> pendingEvents = new ArrayList<BracketEvent>();//Events of the change in progress
+	private final List<BracketListener> synchronousListeners = new CopyOnWriteArrayList<BracketListener>();
+	private final List<BracketListener> queuedListeners = new CopyOnWriteArrayList<BracketListener>();
+	private final Queue<BracketEvent> queuedEvents = new ConcurrentLinkedQueue<BracketEvent>();//Events waiting for dispatchQueuedEvents
+	private TeamInterface[] teamTable;//Team objects indexed by their id
+	private BitSet usedIds;//Ids that are currently assigned to a team in the bracket
+	private int idGeneration;//Changes whenever this bracket gives a team an id or takes one away
+	private int[] startSlots;//First round slot of each team, indexed by id
+	private int[] teamSlots;//Farthest slot each team has been placed in, indexed by id. -1 if the id is not in use
+	private byte[] teamWins;//Number of games each team has won, indexed by id
+	private long[] aliveMask;//Team mask of the ids of the teams that have not lost a game
+	private int[] pickFourPoints;//Seed times wins of each team, indexed by id
+	private long[][] reachedMasks;//Team mask of the ids of the teams that have won their way into each round, indexed by round
+	private int[] margins;//Winning margin of each decided game, indexed by game slot. 0 if the game has not been decided
+	private int blowoutMargin;//Largest margin of the first round games
+	private BitSet blowoutGames;//First round games won by blowoutMargin
+	private List<TeamInterface> teams;//Every team in the bracket in name order
+	private Map<String,TeamInterface> nameIndex;//Teams keyed by their normalized name
+	private final TeamNameListener nameListener = new TeamNameListener() {//Keeps the name index and team order up to date when a team is renamed
+		public void nameChanged(TeamInterface team, String oldName)
+		{
+			teamRenamed(team, oldName);
+		}
+	};
 	private Region[] regions;
+	private int[] seedOrdering;//Position of each seed within its region's first round, indexed by seed
+	private int[] seedSlots;//First round slot of each region and seed, indexed by region ordinal and seed
+	private byte[][] matchupRounds;//Round each pair of first round positions would meet in, built on first use
+	private GameResult[] results;//Game played from each slot, built on first use and dropped when either slot of the game changes
+	
+	private static final short EMPTY = -1;
 	
 	/**
 	 * Creates a new bracket. Represents a bracket full of teams that advances teams based on
 	 * score differences. A score of zero is considered a score that hasn't been entered. Does not
 	 * accept negative scores.
 	 * 
-	 * @param numRegions The number of equally divided sections of the bracket. Must be an even number
-	 * @param teamsPerRegion Currently only supports 16 teams per region. Should work with any power of two in the future
+	 * @param numRegions The number of equally divided sections of the bracket. Must be a power of two,
+	 * so every team is the same number of games from the championship
+	 * @param teamsPerRegion The number of seeds in each region. Must be a power of two
 	 * 
 	 * @see TeamInterface
 	 * @see Team
 	 */
 	public Bracket(int numRegions, int teamsPerRegion)
 	{
-		if(numRegions % 2 != 0 || !((teamsPerRegion & (teamsPerRegion-1)) == 0))
+		if(numRegions < 2 || (numRegions & (numRegions-1)) != 0 || !((teamsPerRegion & (teamsPerRegion-1)) == 0))
 			throw new IllegalArgumentException();
 		
 		this.numRegions = numRegions;
 		this.teamsPerRegion = teamsPerRegion;
 		
 		//One is added so the integer division creates the bracket effect
-		bracket = new HalfGame[arrayLength(numRegions*teamsPerRegion)+1];
+		int length = arrayLength(numRegions*teamsPerRegion)+1;
+		if(numRegions*teamsPerRegion > Short.MAX_VALUE)
+			throw new IllegalArgumentException();
+		slotTeam = new short[length];
+		Arrays.fill(slotTeam, EMPTY);
+		slotScore = new int[length];
+		winners = new BitSet(length);
+		changedSlots = new BitSet(length);
+		dirtySlots = new BitSet(length);
+		dirtyTeams = new BitSet(numRegions*teamsPerRegion);
+		results = new GameResult[length];
+		teamTable = new TeamInterface[numRegions*teamsPerRegion];
+		usedIds = new BitSet(numRegions*teamsPerRegion);
+		startSlots = new int[numRegions*teamsPerRegion];
+		teamSlots = new int[numRegions*teamsPerRegion];
+		Arrays.fill(teamSlots, -1);
+		teamWins = new byte[numRegions*teamsPerRegion];
+		aliveMask = TeamMask.create(numRegions*teamsPerRegion);
+		pickFourPoints = new int[numRegions*teamsPerRegion];
 		
 		//List of each team with no duplicates
 		teams = new ArrayList<TeamInterface>();
+		nameIndex = new HashMap<String,TeamInterface>();
 		
 		//The indexes of the subarray for all teams (aka the first round of games)
-		this.beginIndex = bracket.length-(numRegions*teamsPerRegion);
-		this.endIndex = bracket.length-1;
+		this.beginIndex = length-(numRegions*teamsPerRegion);
+		this.endIndex = length-1;
+		
+		seedOrdering = new int[teamsPerRegion+1];
+		seedOrdering[0] = -1;//There is no seed zero
+		orderSeeds(0, 1, 1, true);
 		
 		regions = Region.values();
+		fillSeedSlots();
+		snapshot = new BracketSnapshot(numRegions*teamsPerRegion);
+		reachedMasks = new long[getNumRounds()+2][];//Round after the last is the champion
+		margins = new int[beginIndex];
+		blowoutGames = new BitSet(beginIndex);
+		for(int round = 1; round < reachedMasks.length; round++)
+			reachedMasks[round] = TeamMask.create(numRegions*teamsPerRegion);
+	}
+	
+	/**
+	 * Recursively fills in the seedOrdering table for a section of a region. A section of the region
+	 * whose best seed is best holds two smaller sections, one led by best and one led by the seed that
+	 * is paired with best when there are twice as many sections. The section containing the top seed keeps
+	 * the better seed on top, every other section puts it on the bottom and single games always list the better
+	 * seed first. With sixteen teams per region this gives the usual ordering of
+	 * 1, 16, 8, 9, 5, 12, 4, 13, 6, 11, 3, 14, 7, 10, 2, 15
+	 * 
+	 * @param position The first position of the section within the region
+	 * @param sections The number of sections the region is split into at this level
+	 * @param best The best seed in this section
+	 * @param leading True if this section contains the top seed of the region
+	 */
+	private void orderSeeds(int position, int sections, int best, boolean leading)
+	{
+		int size = teamsPerRegion/sections;
+		if(size == 1) {
+			seedOrdering[best] = position;
+			return;
+		}
+		int paired = 2*sections+1-best;
+		int half = size/2;
+		if(half == 1 || leading) {
+			orderSeeds(position, 2*sections, best, leading);
+			orderSeeds(position+half, 2*sections, paired, false);
+		} else {
+			orderSeeds(position, 2*sections, paired, false);
+			orderSeeds(position+half, 2*sections, best, false);
+		}
+	}
+	
+	/**
+	 * Fills in the first round slot of every region and seed combination from the
+	 * current region order. Regions that are not in the bracket get no slots.
+	 */
+	private void fillSeedSlots()
+	{
+		Region[] allRegions = Region.values();
+		seedSlots = new int[allRegions.length*(teamsPerRegion+1)];
+		Arrays.fill(seedSlots, -1);
+		for(int i = 0; i < regions.length && i < numRegions; i++) {
+			int base = regions[i].ordinal()*(teamsPerRegion+1);
+			for(int seed = 1; seed <= teamsPerRegion; seed++)
+				seedSlots[base+seed] = beginIndex + (i*teamsPerRegion) + seedOrdering[seed];
+		}
 	}
 
 	/**
@@ -74,6 +204,233 @@ public class Bracket
 		return number+arrayLength(number/2);
 	}
 	
+	/**
+	 * Returns the team placed in the slot passed, or null if the slot is empty
+	 * 
+	 * @param slot Index of the slot in the bracket
+	 * 
+	 * @return team The team in the slot, null if there is none
+	 */
+	private TeamInterface teamAt(int slot)
+	{
+		int id = slotTeam[slot];
+		return id == EMPTY ? null : teamTable[id];
+	}
+	
+	/**
+	 * Marks a slot as changed by the current edit and since the last snapshot, and drops the
+	 * cached result of the game played from it
+	 * 
+	 * @param slot Index of the slot that changed
+	 */
+	private void touch(int slot)
+	{
+		changedSlots.set(slot);
+		dirtySlots.set(slot);
+		results[slot] = null;
+		results[getOpponent(slot)] = null;
+		if(slot > 1)
+			recordMargin(slot/2);
+	}
+	
+	/**
+	 * Brings the margin of a game up to date with its slots, and the largest first round margin
+	 * with it. Called whenever either slot of the game changes.
+	 * 
+	 * @param game Slot of the game, the slot its winner advances to
+	 */
+	private void recordMargin(int game)
+	{
+		int winnerIndex = winnerOf(2*game);
+		int margin = (winnerIndex < 0) ? 0 : slotScore[winnerIndex]-slotScore[getOpponent(winnerIndex)];
+		int oldMargin = margins[game];
+		if(margin == oldMargin)
+			return;
+		margins[game] = margin;
+		if(game < beginIndex/2)//Only the first round keeps its largest margin
+			return;
+		if(margin > blowoutMargin) {
+			blowoutMargin = margin;
+			blowoutGames.clear();
+			blowoutGames.set(game);
+		}
+		else if(margin == blowoutMargin && margin > 0)
+			blowoutGames.set(game);
+		else if(blowoutGames.get(game)) {
+			blowoutGames.clear(game);
+			if(blowoutGames.isEmpty()) {
+				//The largest margin went down, so look through the first round for the new one
+				blowoutMargin = 0;
+				for(int i = beginIndex/2; i < beginIndex; i++) {
+					if(margins[i] > blowoutMargin) {
+						blowoutMargin = margins[i];
+						blowoutGames.clear();
+					}
+					if(margins[i] == blowoutMargin && margins[i] > 0)
+						blowoutGames.set(i);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Puts the team with the given id in a slot with no score entered and no result
+	 * 
+	 * @param slot Index of the slot that will hold the team
+	 * @param id The id of the team
+	 */
+	private void placeTeam(int slot, short id)
+	{
+		if(slot >= beginIndex)
+			startSlots[id] = slot;
+		teamSlots[id] = slot;//Teams are only ever placed one slot past the farthest slot they reached
+		slotTeam[slot] = id;
+		slotScore[slot] = 0;
+		winners.clear(slot);
+		touch(slot);
+	}
+	
+	/**
+	 * Empties the slot passed, removing the team, its score and its result
+	 * 
+	 * @param slot Index of the slot to empty
+	 */
+	private void clearSlot(int slot)
+	{
+		short id = slotTeam[slot];
+		slotTeam[slot] = EMPTY;
+		if(id != EMPTY && teamSlots[id] == slot) {
+			//Move the team's cursor back to the farthest slot it still holds
+			int index = startSlots[id];
+			if(slotTeam[index] != id)
+				index = -1;
+			else
+				while(index > 1 && slotTeam[index/2] == id)
+					index /= 2;
+			teamSlots[id] = index;
+		}
+		slotScore[slot] = 0;
+		winners.clear(slot);
+		touch(slot);
+	}
+	
+	/**
+	 * Records the score of the team in the slot passed and reports it if the score changed
+	 * 
+	 * @param slot Index of the slot
+	 * @param score The score of the team in the slot's game
+	 */
+	private void setScore(int slot, int score)
+	{
+		boolean changed = slot != 1 && slotTeam[slot] != EMPTY && slotScore[slot] != score;
+		slotScore[slot] = score;
+		touch(slot);
+		if(changed)
+			emit(BracketEvent.Type.SCORE_CHANGED, slot);
+	}
+	
+	/**
+	 * Removes the result of the game from the slot passed, so the team in it is no longer the winner
+	 * 
+	 * @param slot Index of the slot
+	 */
+	private void clearWinner(int slot)
+	{
+		winners.clear(slot);
+		touch(slot);
+	}
+	
+	/**
+	 * Marks the team in the slot as the winner of its game and updates the team's wins
+	 * 
+	 * @param slot Index of the winning slot
+	 */
+	private void won(int slot)
+	{
+		winners.set(slot);
+		touch(slot);
+		setWins(slotTeam[slot], teamWins[slotTeam[slot]]+1);
+		emit(BracketEvent.Type.GAME_COMPLETED, slot);
+	}
+	
+	/**
+	 * Marks the team in the slot as the loser of its game and sets the team's status to eliminated
+	 * 
+	 * @param slot Index of the losing slot
+	 */
+	private void lost(int slot)
+	{
+		clearWinner(slot);
+		setAlive(slot, false);
+	}
+	
+	/**
+	 * Sets the number of wins of the team with the given id, both in the bracket's cursor and in the team
+	 * 
+	 * @param id The id of the team
+	 * @param wins The team's number of wins
+	 */
+	private void setWins(short id, int wins)
+	{
+		setReached(id, teamWins[id], wins);
+		teamWins[id] = (byte)wins;
+		pickFourPoints[id] = teamTable[id].getSeed()*wins;
+		teamTable[id].setWins(wins);
+		dirtyTeams.set(id);
+	}
+	
+	/**
+	 * Updates the reached masks of a team whose number of wins changed. A team with n wins
+	 * has reached rounds 1 through n+1.
+	 * 
+	 * @param id The id of the team
+	 * @param oldWins The team's number of wins before the change, -1 if the team was not in the bracket
+	 * @param wins The team's number of wins after the change, -1 if the team is leaving the bracket
+	 */
+	private void setReached(short id, int oldWins, int wins)
+	{
+		int last = reachedMasks.length-1;
+		for(int round = Math.min(oldWins, wins)+2; round <= Math.max(oldWins, wins)+1 && round <= last; round++)
+			TeamMask.set(reachedMasks[round], id, wins > oldWins);
+	}
+	
+	/**
+	 * Sets whether the team in the slot passed is still in the tournament, both in the bracket's cursor
+	 * and in the team. Reports the team as eliminated or revived if its status changes.
+	 * 
+	 * @param slot Index of the slot holding the team, in the game that decides its status
+	 * @param alive False if the team has been eliminated
+	 */
+	private void setAlive(int slot, boolean alive)
+	{
+		short id = slotTeam[slot];
+		if(TeamMask.get(aliveMask, id) != alive)
+			emit(alive ? BracketEvent.Type.TEAM_REVIVED : BracketEvent.Type.TEAM_ELIMINATED, slot);
+		TeamMask.set(aliveMask, id, alive);
+		teamTable[id].setStatus(alive);
+		dirtyTeams.set(id);
+	}
+	
+	/**
+	 * Records an event about the team in the slot passed and its game. The event is delivered to
+	 * listeners when the change in progress is published.
+	 * 
+	 * @param type The kind of event
+	 * @param slot Index of the slot holding the team the event is about
+	 */
+	private void emit(BracketEvent.Type type, int slot)
+	{
+		if(synchronousListeners.isEmpty() && queuedListeners.isEmpty())
+			return;
+		int opponentIndex = getOpponent(slot);
+		int game = slot/2;
+		int round = Integer.numberOfLeadingZeros(game)-Integer.numberOfLeadingZeros(beginIndex);
+		pendingEvents.add(new BracketEvent(type, game, round, teamAt(slot),
+				opponentIndex == slot ? null : teamAt(opponentIndex),
+				slotScore[slot], opponentIndex == slot ? 0 : slotScore[opponentIndex],
+				snapshot.getVersion()+1));
+	}
+	
 	/**
 	 * Adds a team to the bracket. Seed must be between 1 and the number of teams 
 	 * in the region (inclusive). If there is already a team in it's designated place
@@ -97,10 +454,24 @@ public class Bracket
 		if(findTeam(team.getName()) != null)//There is already a team with this name
 			return 2;
 		
-		if(bracket[hashCode(team)] == null)
+		int index = hashCode(team);
+		if(slotTeam[index] == EMPTY)
 		{
-			bracket[hashCode(team)] = new HalfGame(team);
-			teams.add(team);
+			short id = (short)usedIds.nextClearBit(0);
+			usedIds.set(id);
+			teamTable[id] = team;
+			team.setId(id);
+			idGeneration++;
+			teamWins[id] = (byte)team.getWins();
+			setReached(id, -1, teamWins[id]);
+			pickFourPoints[id] = team.getSeed()*teamWins[id];
+			TeamMask.set(aliveMask, id, team.is_alive());
+			placeTeam(index, id);
+			insertTeam(team);
+			nameIndex.put(normalize(team.getName()), team);
+			team.setNameListener(nameListener);
+			rosterChanged = true;
+			publish();
 			return 0;
 		}
 		return 1;
@@ -147,18 +518,87 @@ public class Bracket
 			return 1;//Team has already lost
 		
 		int startingIndex = hashCode(team);
-		if(bracket[startingIndex].getTeam() != team)
+		if(startingIndex < 0 || teamAt(startingIndex) != team)
 			return 2;//team Object passed is not in bracket
 		
 		//Calculates the starting position of the team. Then finds its farthest position
 		int firstIndex = getCurrentIndex(startingIndex);
 		
-		if(bracket[firstIndex] == null)
-			bracket[firstIndex] = new HalfGame(team);//If this position is empty (used when initializing bracket)
+		if(slotTeam[firstIndex] == EMPTY)
+			placeTeam(firstIndex, slotTeam[startingIndex]);//If this position is empty (used when initializing bracket)
 		
-		bracket[firstIndex].setScore(score);
+		setScore(firstIndex, score);
 		
 		finishGame(firstIndex);
+		publish();
+		return 0;
+	}
+	
+	/**
+	 * Adds a score to each team in the map passed, as if addScore were called for every team, but
+	 * all of the entries are checked before anything is written. Each score goes to the farthest matchup
+	 * the team had before the batch was applied. The scores are then written and the games they complete
+	 * are finished in a single sweep from the earliest round to the latest, and one snapshot is published.
+	 * 
+	 * @param scores The score to add for each team
+	 * 
+	 * @return errorCode 0: Added successfully; 1: A team has already lost; 2: A TeamInterface object is not in bracket;
+	 * 3: A score depends on the result of a game that another score in the batch decides. Nothing is added unless 0 is returned
+	 * 
+	 * @throws IllegalArgumentException if scores is null or holds a null team, a null score or a negative score
+	 */
+	public int addScores(Map<TeamInterface,Integer> scores)
+	{
+		if(scores == null)
+			throw new IllegalArgumentException();
+		
+		//The slot each score will be written to
+		int[] targetScores = new int[slotTeam.length];
+		short[] targetTeams = new short[slotTeam.length];
+		BitSet targets = new BitSet(slotTeam.length);
+		for(Map.Entry<TeamInterface,Integer> entry : scores.entrySet()) {
+			TeamInterface team = entry.getKey();
+			Integer score = entry.getValue();
+			if(team == null || score == null || score < 0)
+				throw new IllegalArgumentException();
+			
+			if(!team.is_alive())
+				return 1;//Team has already lost
+			int startingIndex = hashCode(team);
+			if(startingIndex < 0 || teamAt(startingIndex) != team)
+				return 2;//team Object passed is not in bracket
+			
+			int target = getCurrentIndex(startingIndex);
+			targets.set(target);
+			targetScores[target] = score;
+			targetTeams[target] = slotTeam[startingIndex];
+		}
+		
+		//A team placed ahead of an undecided game would be taken back out if its opponent's score decides that game
+		for(int target = targets.nextSetBit(0); target >= 0; target = targets.nextSetBit(target+1)) {
+			short id = targetTeams[target];
+			for(int index = target; index < beginIndex; ) {
+				index = (slotTeam[2*index] == id) ? 2*index : 2*index+1;
+				if(slotTeam[index] != id || winners.get(index))
+					break;
+				if(targets.get(getOpponent(index)))
+					return 3;
+			}
+		}
+		
+		for(int target = targets.nextSetBit(0); target >= 0; target = targets.nextSetBit(target+1)) {
+			if(slotTeam[target] == EMPTY)
+				placeTeam(target, targetTeams[target]);//If this position is empty (used when initializing bracket)
+			setScore(target, targetScores[target]);
+		}
+		
+		//Later rounds have lower indexes, so sweeping down finishes every game before the games its winner plays in
+		for(int target = targets.length()-1; target >= 0; target = targets.previousSetBit(target-1)) {
+			if(target != 1 && targets.get(getOpponent(target)) && getOpponent(target) > target)
+				continue;//Game was already finished from the opponent's slot
+			finishGame(target);
+		}
+		publish();
 		return 0;
 	}
 	
@@ -170,17 +610,18 @@ public class Bracket
 	 * @return The team removed if found, else null
 	 */
 	public TeamInterface removeTeam1(TeamInterface team) {
-		if(team == null || !bracket[hashCode(team)].equals(team))
+		if(team == null || hashCode(team) < 0 || teamAt(hashCode(team)) != team)
 			return null;
 		
 		TeamInterface temp = team;
 		int index = hashCode(team);
 		while(temp != null && temp.getName().equals(team.getName())) {
-			bracket[index] = null;
+			clearSlot(index);
 			index /= 2;
-			if(bracket[index] != null)
-				temp = bracket[index].getTeam();
+			temp = teamAt(index);
 		}
+		rosterChanged = true;
+		publish();
 		return team;
 	}
 	
@@ -196,28 +637,92 @@ public class Bracket
             if(teamIndex == 1)
                     return;
             int opponentIndex = getOpponent(teamIndex);
-            HalfGame team = bracket[teamIndex];
-            HalfGame opponent = bracket[opponentIndex];
-            if(team.getScore() == 0 || (opponent == null || opponent.getScore() == 0))
+            int teamScore = slotScore[teamIndex];
+            int opponentScore = slotScore[opponentIndex];
+            if(teamScore == 0 || (slotTeam[opponentIndex] == EMPTY || opponentScore == 0))
                     return;
-            if(team.getScore() > opponent.getScore()) { //Team won
-                    team.won();
-                    opponent.lost();
-
-                    int nextIndex = teamIndex/2;
-                    if(bracket[nextIndex] == null || !bracket[nextIndex].getTeam().equals(team.getTeam())) {
-                            bracket[nextIndex] = new HalfGame(team.getTeam());
-                    }
-            } else if(opponent.getScore() > team.getScore()) { //Opponent won
-                    opponent.won();
-                    team.lost();
-
-                    int nextIndex = opponentIndex/2;
-                    if(bracket[nextIndex] == null || !bracket[nextIndex].getTeam().equals(opponent.getTeam())) {
-                            bracket[nextIndex] = new HalfGame(opponent.getTeam());
-                    }
-            } else											//Tie
-                    bracket[opponentIndex/2] = null;
+            int winnerIndex;
+            if(teamScore > opponentScore) //Team won
+                    winnerIndex = teamIndex;
+            else if(opponentScore > teamScore) //Opponent won
+                    winnerIndex = opponentIndex;
+            else {											//Tie
+                    clearAdvance(opponentIndex/2);
+                    return;
+            }
+            //Take out whatever was placed ahead in the next slot before recording the result. Undoing
+            //the games it played there revives their losers, which must not reach this game's loser
+            int nextIndex = winnerIndex/2;
+            boolean advancing = slotTeam[nextIndex] != slotTeam[winnerIndex];
+            if(advancing)
+                    clearAdvance(nextIndex);
+            won(winnerIndex);
+            lost(getOpponent(winnerIndex));
+            if(advancing)
+                    placeTeam(nextIndex, slotTeam[winnerIndex]);
+            if(nextIndex == 1)
+                    emit(BracketEvent.Type.CHAMPION_SET, winnerIndex);
+	}
+	
+	/**
+	 * Returns the slot of the team that won the game played from the slot passed
+	 * 
+	 * @param index Index of either team in the game
+	 * 
+	 * @return winnerIndex The index of the winning slot, -1 if the game has not been decided
+	 */
+	private int winnerOf(int index)
+	{
+		if(index == 1)
+			return -1;
+		if(winners.get(index))
+			return index;
+		int opponentIndex = getOpponent(index);
+		if(winners.get(opponentIndex))
+			return opponentIndex;
+		return -1;
+	}
+	
+	/**
+	 * Undoes the result of the game played from the slot passed. The winner is taken back out of
+	 * every later slot it reached (undoing those games first), loses the win and the loser
+	 * is revived. Games that do not involve the winner's path are left alone.
+	 * 
+	 * @param index Index of either team in the game
+	 */
+	private void revertGame(int index)
+	{
+		int winnerIndex = winnerOf(index);
+		if(winnerIndex < 0)
+			return;
+		int loserIndex = getOpponent(winnerIndex);
+		
+		if(slotTeam[winnerIndex/2] == slotTeam[winnerIndex])
+			clearAdvance(winnerIndex/2);
+		
+		emit(BracketEvent.Type.GAME_REVERTED, winnerIndex);
+		setWins(slotTeam[winnerIndex], teamWins[slotTeam[winnerIndex]]-1);
+		clearWinner(winnerIndex);
+		setAlive(loserIndex, true);
+	}
+	
+	/**
+	 * Takes the team in the slot passed out of it and out of every later slot it reached. Any game
+	 * decided from this slot is undone first so wins and eliminations stay consistent.
+	 * 
+	 * @param index Index of the slot to empty
+	 */
+	private void clearAdvance(int index)
+	{
+		if(slotTeam[index] == EMPTY)
+			return;
+		if(index != 1) {
+			if(winnerOf(index) >= 0)
+				revertGame(index);
+			else if(slotTeam[index/2] == slotTeam[index])//Team was placed ahead of its game being decided
+				clearAdvance(index/2);
+		}
+		clearSlot(index);
 	}
 	
 	/**
@@ -228,17 +733,17 @@ public class Bracket
 	 */
 	public boolean initialized()
 	{
-		for(int i = beginIndex;i < bracket.length; i++)
-			if(bracket[i] == null)
+		for(int i = beginIndex;i < slotTeam.length; i++)
+			if(slotTeam[i] == EMPTY)
 				return false;
 			return true;
 	}
         
         public boolean hasBegun() {
-            for(int i = beginIndex;i < bracket.length; i++) {
-		if(bracket[i] == null)
+            for(int i = beginIndex;i < slotTeam.length; i++) {
+		if(slotTeam[i] == EMPTY)
                     return false;
-                else if(bracket[i].getScore() != 0)
+                else if(slotScore[i] != 0)
                     return true;
             }
             return false;
@@ -266,14 +771,13 @@ public class Bracket
 		int index2 = getCurrentIndex(hashCode(team2));
 
 			if(index1 < 0 || index2 < 0 ||
-					bracket[index1] == null || bracket[index2] == null ||
-					!bracket[index1].getTeam().equals(team1) || 
-					!bracket[index2].getTeam().equals(team2))
+					teamAt(index1) != team1 || 
+					teamAt(index2) != team2)
 			throw new IllegalArgumentException();
 		
 		
 		//One of the teams has been eliminated
-		if(!bracket[index1].getTeam().is_alive() || !bracket[index2].getTeam().is_alive())
+		if(!team1.is_alive() || !team2.is_alive())
 			return -1;
 		
 		
@@ -281,11 +785,12 @@ public class Bracket
 	}
 	
 	/**
-	 * Recursively calculates how many games before the teams at each index play each other.
+	 * Calculates how many games before the teams at each index play each other.
 	 * Order matters if games are not in same round and are calculated relative to index1.
 	 * 
-	 * Idea: Change from recursive to a list based that would calculate all future possiblities of team 2 then see how
-	 * long until team 1 would get there? Might be slower. Could also change call so both would be on same round regardless
+	 * The bracket is a binary heap, so the slot where the two teams would meet is their lowest
+	 * common ancestor. After lifting the deeper index to the depth of the other, the highest bit
+	 * that differs between the two indexes is the number of levels left to that ancestor.
 	 * 
 	 * @param index1
 	 * @param index2
@@ -294,34 +799,56 @@ public class Bracket
 	 */
 	private int gamesBeforeMatchup(int index1, int index2)
 	{
-		if(index1 < 0 || index2 < 0 || index1 >bracket.length-1 || index2 > bracket.length-1)
+		if(index1 < 1 || index2 < 1 || index1 >slotTeam.length-1 || index2 > slotTeam.length-1)
 			return -1;
-		List<Integer> rounds1 = new LinkedList<Integer>();
-		List<Integer> rounds2 = new LinkedList<Integer>();
-		
-		while(index2 > 0 || index1 > 0) {
-			if(index2 > 0)
-				rounds2.add(index2);
-			if(index1 > 0)
-				rounds1.add(index1);
-			index2 /= 2;
-			index1 /= 2;
-		}
-		Iterator<Integer> itr1 = rounds1.iterator();
-		int count = 0;
-		while(itr1.hasNext()) {
-			Iterator<Integer> itr2 = rounds2.iterator();
-			int currIndex1 = itr1.next();
-			while(itr2.hasNext()) {
-				int currIndex2 = itr2.next();
-				if(currIndex2 == currIndex1) {
-					return count-1;
-				}
-			}
-			count++;
-		}
-		return -1;
+		int depth1 = 31-Integer.numberOfLeadingZeros(index1);
+		int depth2 = 31-Integer.numberOfLeadingZeros(index2);
+		int depth = Math.min(depth1, depth2);
+		int levelsAbove = 32-Integer.numberOfLeadingZeros((index1 >> (depth1-depth)) ^ (index2 >> (depth2-depth)));
 		
+		return (depth1-depth)+levelsAbove-1;
+	}
+	
+	/**
+	 * Returns the round in which the two teams would play each other if both kept winning, where
+	 * round 1 is the first round of the tournament. Only the starting places of the teams matter,
+	 * so the answer does not change as games are played.
+	 * 
+	 * @param team1 A team in the bracket
+	 * @param team2 Another team in the bracket
+	 * 
+	 * @return round The round the teams would meet in. 0 if both are the same team, -1 if either team is not in the bracket
+	 */
+	public int matchupRound(TeamInterface team1, TeamInterface team2)
+	{
+		if(team1 == null || team2 == null)
+			return -1;
+		int index1 = hashCode(team1);
+		int index2 = hashCode(team2);
+		if(index1 < 0 || index2 < 0 || teamAt(index1) != team1 || teamAt(index2) != team2)
+			return -1;
+		return getMatchupRounds()[index1-beginIndex][index2-beginIndex];
+	}
+	
+	/**
+	 * Returns a table of the round every pair of first round positions would meet in, indexed by
+	 * the position of each team in the first round (0 being the first slot of the first region).
+	 * The table is built the first time it is asked for and shared by every caller afterwards, so it
+	 * must not be modified.
+	 * 
+	 * @return matchupRounds The round each pair of positions would meet in, 0 on the diagonal
+	 */
+	public byte[][] getMatchupRounds()
+	{
+		if(matchupRounds == null) {
+			int numTeams = numRegions*teamsPerRegion;
+			byte[][] rounds = new byte[numTeams][numTeams];
+			for(int i = 0; i < numTeams; i++)
+				for(int j = 0; j < numTeams; j++)
+					rounds[i][j] = (byte)(32-Integer.numberOfLeadingZeros(i ^ j));
+			matchupRounds = rounds;
+		}
+		return matchupRounds;
 	}
 	
 	/**
@@ -345,29 +872,288 @@ public class Bracket
 	 * @return scores A List of scores in order oldest to newest
 	 */
 	public List<Integer> getScores(TeamInterface team, int limit) {
-		if(team == null || 
-			!bracket[hashCode(team)].getTeam().equals(team) ||
+		if(team == null || hashCode(team) < 0 ||
+			teamAt(hashCode(team)) != team ||
 			 limit < 0)
 			throw new IllegalArgumentException();
 		
 		List<Integer> scores = new ArrayList<Integer>();
 		int index = hashCode(team);
-		HalfGame curr = bracket[index];
+		short id = slotTeam[index];
 
 		while(limit != 0 &&//The limit passed has not been reached
 				index != 1 &&//It's not the champion position (score isn't logical)
-				curr != null && //This position actually exists
-				curr.getTeam().equals(team) && //We are still viewing scores for the team passed
-				curr.getScore() > 0) { //negative (invalid)
+				slotTeam[index] == id && //We are still viewing scores for the team passed
+				slotScore[index] > 0) { //negative (invalid)
 
-			scores.add(bracket[index].getScore());
+			scores.add(slotScore[index]);
 			index /= 2;
-			curr = bracket[index];
 			limit--;
 		}
 		return scores;
 	}
 	
+	/**
+	 * Returns the number of rounds in the bracket, which is also the number of games the champion wins
+	 * 
+	 * @return numRounds The number of rounds
+	 */
+	public int getNumRounds()
+	{
+		return 31-Integer.numberOfLeadingZeros(beginIndex);
+	}
+	
+	/**
+	 * Returns the id the bracket gave the team when it was added. Ids are between 0 and the number of
+	 * teams in the bracket and are the bit positions of the team in every team mask of the bracket.
+	 * The id of a team that is removed may be given to the next team added.
+	 * 
+	 * @param team A team in the bracket
+	 * 
+	 * @return id The team's id, -1 if the team is not in the bracket
+	 * 
+	 * @see TeamMask
+	 */
+	public int getTeamId(TeamInterface team)
+	{
+		if(team == null)
+			return -1;
+		int index = teamIndex(team);
+		return (index < 0) ? -1 : slotTeam[index];
+	}
+	
+	/**
+	 * Returns a team mask of the teams that have not lost a game. The array is shared with the
+	 * bracket and changes as scores are entered, so it must not be modified.
+	 * 
+	 * @return aliveMask Team mask of the teams still in the tournament
+	 * 
+	 * @see TeamMask
+	 */
+	public long[] getAliveMask()
+	{
+		return aliveMask;
+	}
+	
+	/**
+	 * Returns a team mask of the teams that have won their way into the given round. Every team
+	 * in the bracket has reached round 1 and the champion is the only team in round getNumRounds()+1.
+	 * The array is shared with the bracket and must not be modified.
+	 * 
+	 * @param round The round, 1 through getNumRounds()+1
+	 * 
+	 * @return reachedMask Team mask of the teams that reached the round
+	 * 
+	 * @throws IllegalArgumentException if the round is out of range
+	 */
+	public long[] getReachedMask(int round)
+	{
+		if(round < 1 || round >= reachedMasks.length)
+			throw new IllegalArgumentException();
+		return reachedMasks[round];
+	}
+	
+	/**
+	 * Returns the pick four points each team has earned so far, its seed times its wins. The table
+	 * is kept up to date as games finish, so the array is shared with the bracket and must not be modified.
+	 * 
+	 * @return pickFourPoints Points of each team, indexed by team id. 0 for ids not in use
+	 */
+	public int[] getPickFourPoints()
+	{
+		return pickFourPoints;
+	}
+	
+	/**
+	 * Returns a number that changes whenever this bracket gives a team an id or takes one away, so
+	 * anything built from the ids of this bracket's teams can tell it is out of date. Other brackets
+	 * have their own.
+	 * 
+	 * @return idGeneration The generation of this bracket's team ids
+	 */
+	public int getIdGeneration()
+	{
+		return idGeneration;
+	}
+	
+	/**
+	 * Returns the winning margin of every decided game. The games of round r are the slots from
+	 * getFirstGame(r) up to getFirstGame(r-1), and each game is the slot its winner advances to,
+	 * the same as BracketEvent.getGame. The table is kept up to date as games finish, so the array
+	 * is shared with the bracket and must not be modified.
+	 * 
+	 * @return margins The winner's score minus the loser's score of each game, indexed by game slot.
+	 * 0 for games that have not been decided
+	 * 
+	 * @see #getFirstGame(int)
+	 */
+	public int[] getMargins()
+	{
+		return margins;
+	}
+	
+	/**
+	 * Returns the slot of the first game of a round in the table of margins. Slot 1 is the
+	 * championship, so round getNumRounds()+1 has no games, and round 0 gives the slot just
+	 * past the last first round game.
+	 * 
+	 * @param round The round, the first round being round 1
+	 * 
+	 * @return game The slot of the round's first game
+	 * 
+	 * @throws IllegalArgumentException if round is not between 0 and getNumRounds()+1
+	 * 
+	 * @see #getMargins()
+	 */
+	public int getFirstGame(int round)
+	{
+		if(round < 0 || round > getNumRounds()+1)
+			throw new IllegalArgumentException();
+		return beginIndex >> round;
+	}
+	
+	/**
+	 * @return blowoutMargin The largest margin a first round game was won by, 0 if no first round
+	 * game has been decided
+	 */
+	public int getBlowoutMargin()
+	{
+		return blowoutMargin;
+	}
+	
+	/**
+	 * Returns the first round games won by the largest margin, as played by their winners. Ties
+	 * are all returned, in bracket order.
+	 * 
+	 * @return blowouts The games with the largest first round margin, empty if none have been decided
+	 */
+	public List<GameResult> getBlowouts()
+	{
+		List<GameResult> blowouts = new ArrayList<GameResult>(blowoutGames.cardinality());
+		for(int game = blowoutGames.nextSetBit(0); game >= 0; game = blowoutGames.nextSetBit(game+1))
+			blowouts.add(result(winnerOf(2*game)));
+		return blowouts;
+	}
+	
+	/**
+	 * @return numTeamsAlive The number of teams in the bracket that have not lost a game
+	 */
+	public int numTeamsAlive()
+	{
+		return TeamMask.count(aliveMask);
+	}
+	
+	/**
+	 * Counts the teams of a team mask that have not lost a game
+	 * 
+	 * @param teams Team mask of the teams to count
+	 * 
+	 * @return numAlive The number of those teams still in the tournament
+	 */
+	public int numTeamsAlive(long[] teams)
+	{
+		return TeamMask.countBoth(teams, aliveMask);
+	}
+	
+	/**
+	 * Returns the game a team played or is playing in the given round. Does not allocate
+	 * unless the game changed since it was last looked at.
+	 * 
+	 * @param team A team in the bracket
+	 * @param round The round of the game, the first round being round 1
+	 * 
+	 * @return game The team's game in that round, null if the team is not in the bracket or did not reach the round
+	 */
+	public GameResult getGame(TeamInterface team, int round)
+	{
+		if(team == null || round < 1 || round > getNumRounds())
+			return null;
+		int index = teamIndex(team);
+		if(index < 0)
+			return null;
+		int slot = index >> (round-1);
+		if(slotTeam[slot] != slotTeam[index])
+			return null;
+		return result(slot);
+	}
+	
+	/**
+	 * Fills the array passed with every game the team has reached, from the first round on. The game
+	 * the team is currently in is included even if its scores have not been entered.
+	 * 
+	 * @param team A team in the bracket
+	 * @param games Filled with the team's games in order. Should have room for getNumRounds() games
+	 * 
+	 * @return numGames The number of games put in the array. 0 if the team is not in the bracket
+	 * 
+	 * @throws IllegalArgumentException if games is null
+	 */
+	public int getGames(TeamInterface team, GameResult[] games)
+	{
+		if(games == null)
+			throw new IllegalArgumentException();
+		int index = (team == null) ? -1 : teamIndex(team);
+		if(index < 0)
+			return 0;
+		short id = slotTeam[index];
+		int numGames = 0;
+		for(; index > 1 && slotTeam[index] == id && numGames < games.length; index /= 2)
+			games[numGames++] = result(index);
+		return numGames;
+	}
+	
+	/**
+	 * Fills the arrays passed with the scores of every game the team has reached, from the first round on.
+	 * Scores that have not been entered are 0.
+	 * 
+	 * @param team A team in the bracket
+	 * @param scores Filled with the team's score in each game
+	 * @param opponentScores Filled with the opponent's score in each game
+	 * 
+	 * @return numGames The number of games filled in. 0 if the team is not in the bracket
+	 * 
+	 * @throws IllegalArgumentException if either array is null
+	 */
+	public int fillScores(TeamInterface team, int[] scores, int[] opponentScores)
+	{
+		if(scores == null || opponentScores == null)
+			throw new IllegalArgumentException();
+		int index = (team == null) ? -1 : teamIndex(team);
+		if(index < 0)
+			return 0;
+		short id = slotTeam[index];
+		int numGames = 0;
+		for(; index > 1 && slotTeam[index] == id && numGames < scores.length && numGames < opponentScores.length; index /= 2) {
+			int opponentIndex = getOpponent(index);
+			scores[numGames] = slotScore[index];
+			opponentScores[numGames] = (slotTeam[opponentIndex] == EMPTY) ? 0 : slotScore[opponentIndex];
+			numGames++;
+		}
+		return numGames;
+	}
+	
+	/**
+	 * Returns the cached result of the game played from the slot passed, building it if needed
+	 * 
+	 * @param slot Index of the slot of the team the game is seen from. Must hold a team and not be the champion slot
+	 * 
+	 * @return game The game played from the slot
+	 */
+	private GameResult result(int slot)
+	{
+		GameResult game = results[slot];
+		if(game == null) {
+			int opponentIndex = getOpponent(slot);
+			int winnerIndex = winnerOf(slot);
+			game = new GameResult(Integer.numberOfLeadingZeros(slot)-Integer.numberOfLeadingZeros(beginIndex)+1,
+					teamAt(slot), teamAt(opponentIndex), slotScore[slot],
+					(slotTeam[opponentIndex] == EMPTY) ? 0 : slotScore[opponentIndex],
+					(winnerIndex < 0) ? null : teamAt(winnerIndex));
+			results[slot] = game;
+		}
+		return game;
+	}
+	
 	/**
 	 * 
 	 * @param seed
@@ -376,10 +1162,10 @@ public class Bracket
 	 */
 	public TeamInterface getTeam(int seed, Region region)
 	{
-		int index = hashCode(new Team("temp", seed, region));
-		if(index < 0 || index >= bracket.length || bracket[index] != null)
-			return bracket[index].getTeam();
-		return null;
+		int index = slotOf(seed, region);
+		if(index < 0)
+			return null;
+		return teamAt(index);
 	}
 	
 	/**
@@ -398,71 +1184,160 @@ public class Bracket
 		
 		removeProgress(team);
 		
-		bracket[index] = null;
+		short id = slotTeam[index];
+		clearSlot(index);
+		setReached(id, teamWins[id], -1);
+		pickFourPoints[id] = 0;
+		TeamMask.clear(aliveMask, id);
+		team.setId(-1);
+		idGeneration++;
+		teamTable[id] = null;
+		usedIds.clear(id);
 		teams.remove(team);
+		nameIndex.remove(normalize(team.getName()));
+		team.setNameListener(null);
+		rosterChanged = true;
+		publish();
 		
 		return team;
 	}
 	
 	/**
-	 * A method used to edit the scores of a particular team. All of the progress will be reset and the scores
-	 * will be re-added one by one. Once the first 0 is found, all scores after will be disregarded. The scores passed
-	 * should contain every score of the team from first round to current round (in that order).
+	 * Renames a team in the bracket. Unlike TeamInterface.setName, which the bracket also follows,
+	 * this reports a name that is already taken with an error code instead of an exception.
+	 * 
+	 * @param team The team to rename. Must be in the bracket
+	 * @param name The new name of the team
+	 * 
+	 * @return errorCode 0: Renamed successfully; 1: Team is not in bracket; 2: Another team already has this name
+	 * 
+	 * @throws IllegalArgumentException if team is null or the name is null or empty
+	 */
+	public int renameTeam(TeamInterface team, String name)
+	{
+		if(team == null || name == null || name.trim().length() < 1)
+			throw new IllegalArgumentException();
+		
+		if(nameIndex.get(normalize(team.getName())) != team)
+			return 1;//Team is not in bracket
+		
+		TeamInterface existing = nameIndex.get(normalize(name));
+		if(existing != null && existing != team)
+			return 2;//There is already a team with this name
+		
+		team.setName(name);
+		return 0;
+	}
+	
+	/**
+	 * Moves a team that has just been renamed to its new key in the name index and its new place
+	 * in the list of teams. Called through the name listener the bracket gives each of its teams.
+	 * 
+	 * @param team A team in the bracket whose name has been set
+	 * @param oldName The name the team had before
+	 * 
+	 * @throws IllegalArgumentException if another team in the bracket already has the new name
+	 */
+	private void teamRenamed(TeamInterface team, String oldName)
+	{
+		TeamInterface existing = nameIndex.get(normalize(team.getName()));
+		if(existing != null && existing != team)
+			throw new IllegalArgumentException();
+		
+		nameIndex.remove(normalize(oldName));
+		nameIndex.put(normalize(team.getName()), team);
+		teams.remove(team);
+		insertTeam(team);
+		dirtyTeams.set(team.getId());
+		publish();
+	}
+	
+	/**
+	 * A method used to edit the scores of a particular team. The scores passed should contain every score of
+	 * the team from first round to current round (in that order). Once the first 0 is found, all scores after
+	 * will be disregarded, as will any scores after a game the team loses.
+	 * 
+	 * Only the games whose scores change are re-evaluated. If a changed score keeps the same winner nothing
+	 * else is touched; if it changes the result, only the winner's later games are undone before the new
+	 * result is applied.
 	 * 
 	 * @param team The team that will have its scores edited.
 	 * @param scores All scores of the team from first round to current round
 	 * 
-	 * @throws NullPointerException Thrown if team or scores are null
+	 * @return changedSlots The indexes of every slot whose team, score or result changed
 	 * 
-	 * Bugs: What if first round hasn't been initialized??
-	 * Future: Change to remove scores and only have an edit method in the database
+	 * @throws IllegalArgumentException Thrown if team or scores are null, a score is negative or the team is not in the bracket
 	 */
-	public void editScores(TeamInterface team, List<Integer> scores)
+	public BitSet editScores(TeamInterface team, List<Integer> scores)
 	{
 		if(team == null || scores == null)
 			throw new IllegalArgumentException();
 		int index = this.hashCode(team);
-                if(index < 1 || index > bracket.length || 
-                        !bracket[index].getTeam().equals(team))
+                if(index < 1 || index > slotTeam.length || 
+                        teamAt(index) != team)
                     throw new IllegalArgumentException("Misplaced teams");
-		//Puts the team back to the beginning of the tournament, resets its wins and status, and "revives" the opponents it faced
-		removeProgress(team);
-		//Goes through each score and adds it to the team using the addScore() method
+                for(int score : scores)
+                    if(score < 0)
+                        throw new IllegalArgumentException();
+                
+                changedSlots.clear();
+		short id = slotTeam[index];
 		Iterator<Integer> itr = scores.iterator();
-                boolean clearOut = false;
-		while(bracket[index] != null && index > 0) {
-                    HalfGame opp = bracket[getOpponent(index)];
-                    if(opp != null && index != 1) {
-                        opp.setStatus(false);
-                        opp.getTeam().setStatus(true);
+		boolean scoresLeft = true;
+		int previous = -1;//Slot of the team's game before this one
+		while(true) {
+                    int score = 0;
+                    if(scoresLeft && itr.hasNext())
+                        score = itr.next();
+                    scoresLeft = score != 0;
+                    
+                    if(score == 0 && previous >= 0 && winnerOf(previous) < 0) {
+                        clearAdvance(index);//Team was placed here by the score being removed, not by a win
+                        break;
                     }
-                    if(bracket[index].getTeam().equals(team)) {
-                        bracket[index].setStatus(true);
-                        team.setStatus(true);
-                    }
-                    if(itr.hasNext()) {
-                        int score = itr.next();
-                        bracket[index].setScore(score);
-                    }
-                    else if(bracket[index].getTeam().equals(team)) {
-                        bracket[index].setScore(0);
+                    if(score != slotScore[index]) {
+                        int oldWinner = winnerOf(index);
+                        setScore(index, score);
+                        if(oldWinner < 0 || oldWinner != decidedWinner(index)) {
+                            revertGame(index);
+                            finishGame(index);
+                        }
                     }
-                    if(!clearOut)
-                        this.finishGame(index);
-                    //System.out.println(bracket[index]+" "+bracket[index].getTeam().is_alive()+"\n"+opp+" "+opp.getTeam().is_alive());
-                    if(clearOut) {
-                        TeamInterface clearedTeam = bracket[index].getTeam();
-                        if(clearedTeam != null)
-                            clearedTeam.setWins(clearedTeam.getWins()-1);
-                        if(team != null)
-                            
-                        bracket[index] = null;
+                    
+                    if(index == 1 || slotTeam[index/2] != id)
+                        break;//Team did not advance past this game
+                    if(score == 0) {
+                        clearAdvance(index/2);//Team was placed ahead of a game that no longer has its score
+                        break;
                     }
-                    if(!clearOut)
-                        clearOut = bracket[index].getTeam().equals(team) && 
-                                bracket[index].getScore() == 0;
+                    previous = index;
                     index /= 2;
 		}
+		publish();
+		return (BitSet)changedSlots.clone();
+	}
+	
+	/**
+	 * Determines which slot wins the game played from the slot passed going by the scores
+	 * currently entered, without changing anything
+	 * 
+	 * @param index Index of either team in the game
+	 * 
+	 * @return winnerIndex The index of the slot with the higher score, -1 if a score is missing or the scores are tied
+	 */
+	private int decidedWinner(int index)
+	{
+		if(index == 1)
+			return -1;
+		int opponentIndex = getOpponent(index);
+		if(slotTeam[index] == EMPTY || slotTeam[opponentIndex] == EMPTY ||
+				slotScore[index] == 0 || slotScore[opponentIndex] == 0)
+			return -1;
+		if(slotScore[index] > slotScore[opponentIndex])
+			return index;
+		if(slotScore[opponentIndex] > slotScore[index])
+			return opponentIndex;
+		return -1;
 	}
 	
 	private void removeProgress(TeamInterface team)
@@ -470,48 +1345,53 @@ public class Bracket
 		int index = hashCode(team);
 		if(index < 0)
 			return;
-		//Reset team's status
-		team.setWins(0);
-		team.setStatus(true);
-
-		if(bracket[index] == null)
+		short id = slotTeam[index];
+		if(id == EMPTY) {
+			//Reset team's status
+			team.setWins(0);
+			team.setStatus(true);
 			return;
+		}
+		setWins(id, 0);
+		setAlive(index, true);
 		
 		//Resets teams results  in first round game of bracket
-		bracket[index].setScore(0);
-		bracket[index].setStatus(false);
+		if(winners.get(index))
+			emit(BracketEvent.Type.GAME_REVERTED, index);
+		setScore(index, 0);
+		clearWinner(index);
 		
 		//"Revives" the opponent in first round so score can be calculated
 		int opponentIndex = getOpponent(index);
-		if(bracket[opponentIndex] != null) {
-			if(bracket[opponentIndex].is_winner()) {
-				TeamInterface opponent = bracket[opponentIndex].getTeam();
-				opponent.setWins(opponent.getWins()-1);
+		if(slotTeam[opponentIndex] != EMPTY) {
+			short opponent = slotTeam[opponentIndex];
+			if(winners.get(opponentIndex)) {
+				emit(BracketEvent.Type.GAME_REVERTED, opponentIndex);
+				setWins(opponent, teamWins[opponent]-1);
 			}
-			bracket[opponentIndex].getTeam().setStatus(true);
-			bracket[opponentIndex].setStatus(false);
+			setAlive(opponentIndex, true);
+			clearWinner(opponentIndex);
 		}
 		
-		//Goes through each game that this team is in and sets it to null and "revives" the opponent 
+		//Goes through each game that this team is in and clears it and "revives" the opponent 
 		index /= 2;
-		HalfGame curr = bracket[index];
-		while(curr != null && curr.getTeam().equals(team) && index > 0) {
+		while(index > 0 && slotTeam[index] == id) {
                     opponentIndex = getOpponent(index);
-                    if(bracket[opponentIndex] != null) {
-                        TeamInterface opponent = bracket[opponentIndex].getTeam();
-                        if(opponent != null) {
-                            if(bracket[opponentIndex].is_winner()) //Opponent won matchup
-                                    opponent.setWins(opponent.getWins()-1);
-
-                            bracket[opponentIndex].setStatus(false);//Game is not over so no winner
-                            opponent.setStatus(true);//"revive" opponent so score can be calculated
+                    if(slotTeam[opponentIndex] != EMPTY) {
+                        short opponent = slotTeam[opponentIndex];
+                        if(winners.get(opponentIndex)) { //Opponent won matchup
+                                emit(BracketEvent.Type.GAME_REVERTED, opponentIndex);
+                                setWins(opponent, teamWins[opponent]-1);
                         }
 
+                        clearWinner(opponentIndex);//Game is not over so no winner
+                        setAlive(opponentIndex, true);//"revive" opponent so score can be calculated
                     }
+                    if(winners.get(index))//Team won this game
+                        emit(BracketEvent.Type.GAME_REVERTED, index);
                     //Erase the team from this game and then move to next round
-                    bracket[index] = null;
+                    clearSlot(index);
                     index /= 2;
-                    curr = bracket[index];
 		}		
 	}
 	
@@ -525,11 +1405,12 @@ public class Bracket
 	 */
 	public int possibleWins(String name)
 	{
-		return possibleWins(teamIndex(name));
+		return possibleWins(findTeam(name));
 	}
 	
 	/**
-	 * Calculates how many wins a team could possibly still attain
+	 * Calculates how many wins a team could possibly still attain. A team that is still alive
+	 * can win every game from its current game up to the championship.
 	 * 
 	 * @param team The team that the wins will be calculated for
 	 * 
@@ -540,28 +1421,13 @@ public class Bracket
 		if(team == null)
 			return -1;
 		
-		int index = getCurrentGame(hashCode(team));
-		if(index < 0 || index >= bracket.length)
+		int index = teamIndex(team);
+		if(index < 0)
 			return -1;
 		
-		return possibleWins(index);
-	}
-	
-	/**
-	 * Helper method that recursively calculates the wins a team could possibly 
-	 * attain
-	 * 
-	 * @param index Current position in bracket
-	 * 
-	 * @return numWins The running total of the number of wins
-	 */
-	private int possibleWins(int index) {
-		if(bracket[index] != null && !bracket[index].getTeam().is_alive())
+		if(!TeamMask.get(aliveMask, slotTeam[index]))
 			return 0;
-		if(index == 1)
-			return 0;
-		
-		return 1 + possibleWins(index/2);
+		return 31-Integer.numberOfLeadingZeros(getCurrentGame(index));//Number of games between the current game and the championship
 	}
 	
 	/**
@@ -573,11 +1439,12 @@ public class Bracket
 	 * @return index Index of the team's first round position
 	 */
 	private int teamIndex(String name) {
-		for(int i = beginIndex; i < bracket.length; i++) {
-			if(!(bracket[i] == null) && bracket[i].getTeam().getName().equals(name)) {
-				return i;
-			}
-		}
+		TeamInterface team = findTeam(name);
+		if(team == null)
+			return -1;
+		int index = hashCode(team);
+		if(teamAt(index) == team)
+			return index;
 		return -1;
 	}
 	
@@ -591,7 +1458,7 @@ public class Bracket
 	 */
 	private int teamIndex(TeamInterface team) {
 		int teamIndex = hashCode(team);
-		if(bracket[teamIndex].getTeam().equals(team))
+		if(teamIndex >= 0 && teamAt(teamIndex) == team)
 			return teamIndex;
 		return teamIndex(team.getName());
 	}
@@ -599,102 +1466,74 @@ public class Bracket
 	/**
 	 * Calculates where the team's first round index will be. Use's the teams seed and region to assign
 	 * the team to it's starting position
-	 * Future: Need to make more general. Only works with region size 16
 	 * 
 	 * @param team The team that will have its index calculated
 	 * 
-	 * @return index The index of where this team should be placed in the bracket
+	 * @return index The index of where this team should be placed in the bracket. -1 if the seed or region is not in the bracket
 	 */
 	private int hashCode(TeamInterface team) {
-		int seed = team.getSeed();
-		int regionNumber = 0;
-		for(int i = 0; i < regions.length; i++) {
-			if(regions[i].equals(team.getRegion())) {
-				regionNumber = i;
-			}
-		}
-		int ordering;
-		switch(seed)
-		{
-		case 1: ordering = 0;
-				break;
-		case 16: ordering = 1;
-				break;
-		case 8: ordering = 2;
-				break;
-		case 9: ordering = 3;
-				break;
-		case 5: ordering = 4;
-				break;
-		case 12: ordering = 5;
-				break;
-		case 4: ordering = 6;
-				break;
-		case 13: ordering = 7;
-				break;
-		case 6: ordering = 8;
-				break;
-		case 11: ordering = 9;
-				break;
-		case 3: ordering = 10;
-				break;
-		case 14: ordering = 11;
-				break;
-		case 7: ordering = 12;
-				break;
-		case 10: ordering = 13;
-				break;
-		case 2: ordering = 14;
-				break;
-		case 15: ordering = 15;
-				break;
-		default: ordering = -1;
-		}
-		
-		return beginIndex + (regionNumber*teamsPerRegion)+ordering;
+		return slotOf(team.getSeed(), team.getRegion());
 	}
 	
 	/**
-	 * Takes the index of a team and finds its farthest position in the bracket.
-	 * If the team is alive it will return the index of the team's current position.
-	 * If the team was eliminated it will return the farthest position the team reached
+	 * Returns the first round index for the seed in the region passed, read from the table built
+	 * when the bracket was created and updated whenever the regions are changed
 	 * 
-	 * @param index The starting index of the team
+	 * @param seed The seed of the team
+	 * @param region The region of the team
 	 * 
-	 * @return index The farthest index of the team. -1 if the index is out of bounds 
+	 * @return index The first round index of the seed and region. -1 if the seed or region is not in the bracket
+	 */
+	private int slotOf(int seed, Region region) {
+		if(seed < 1 || seed > teamsPerRegion || region == null)
+			return -1;
+		return seedSlots[region.ordinal()*(teamsPerRegion+1)+seed];
+	}
+	
+	/**
+	 * Returns the slot the next score of the team whose first round slot is passed will be entered
+	 * into. That is the farthest slot the team reached, unless the team scored there and its game
+	 * is not over, in which case it is the empty slot right after it.
+	 * 
+	 * @param index The first round slot of the team
+	 * 
+	 * @return index The slot the team's next score goes to, -1 if the index is out of bounds
 	 */
-	//GOES TO THE FURHTEST INSTANCE OF THE TEAM (DOESN'T CARE IF GAME HAS BEEN COMPLETED
 	private int getCurrentIndex(int index)
 	{	
-		if(index < 0 || index >= bracket.length)//Index is out of bounds
+		if(index < 0 || index >= slotTeam.length)//Index is out of bounds
 			return -1;
-
-		if(bracket[index] == null || bracket[index].getScore() == 0)//No score has been recorded for this team
+		if(slotTeam[index] == EMPTY)
 			return index;
 		
-		if(bracket[getOpponent(index)] != null && //There is an opponent
-				bracket[getOpponent(index)].getScore() != 0 && //The opponent's score has been entered
-				!bracket[index].is_winner())//And the opponent beat this team
-			return index;
+		int current = teamSlots[slotTeam[index]];
+		if(slotScore[current] == 0)//No score has been recorded for this team
+			return current;
 		
-		return getCurrentIndex(index/2);
-			
+		int opponentIndex = getOpponent(current);
+		if(slotTeam[opponentIndex] != EMPTY && //There is an opponent
+				slotScore[opponentIndex] != 0 && //The opponent's score has been entered
+				!winners.get(current))//And the opponent beat this team
+			return current;
+		
+		return current/2;
 	}
 	
-	//DOES NOT MOVE PAST GAME IF GAME HASN'T BEEN DECIDED
+	/**
+	 * Returns the farthest slot the team whose first round slot is passed has been placed in.
+	 * Does not move past a game that has not been decided.
+	 * 
+	 * @param index The first round slot of the team
+	 * 
+	 * @return index The slot of the team's current game, -1 if the index is out of bounds
+	 */
 	private int getCurrentGame(int index)
 	{
-		if(index < 0 || index >= bracket.length)//Index is out of bounds
+		if(index < 0 || index >= slotTeam.length)//Index is out of bounds
 			return -1;
-		
-		if(index == 1)
-			return 1;
-
-		if(bracket[index/2] == null || !bracket[index/2].getTeam().equals(bracket[index].getTeam()))
+		if(slotTeam[index] == EMPTY)
 			return index;
-			
-		
-		return getCurrentGame(index/2);
+		return teamSlots[slotTeam[index]];
 	}
 	
 	/**
@@ -715,13 +1554,24 @@ public class Bracket
 	}
 	
 	/**
-	 * Returns a list of all of the teams in the bracket
-	 * Future: organize list by seeds and/or regions
+	 * Returns a list of all of the teams in the bracket in name order. The list is a read only
+	 * view of the bracket's own list, so it follows teams being added, removed and renamed.
 	 * 
 	 * @return teamList A List of all of the teams in the bracket
 	 */
 	public List<TeamInterface> getTeams() {
-		return teams;
+		return Collections.unmodifiableList(teams);
+	}
+	
+	/**
+	 * Adds a team to the list of teams at its place in name order
+	 * 
+	 * @param team A team that is not in the list
+	 */
+	private void insertTeam(TeamInterface team)
+	{
+		int position = Collections.binarySearch(teams, team);
+		teams.add(position < 0 ? -position-1 : position, team);
 	}
 	
 	public Region[] getRegions() {
@@ -730,8 +1580,113 @@ public class Bracket
 	
 	public void setRegions(Region[] regions) {
 		this.regions = regions;
+		fillSeedSlots();
 	}
-	
+
+	/**
+	 * Changes which regions meet in the games after the regions are decided without taking any teams out of
+	 * the bracket. Each region's slots are moved as a block to the region's new place, so the games inside the
+	 * regions keep their results. Only the games played between region winners are undone, and they are played
+	 * again with the scores the region winners had in them, against their new opponents.
+	 *
+	 * @param newRegions The region in each place of the bracket. Must hold the same regions as getRegions in the
+	 * first numRegions places, in any order
+	 *
+	 * @throws IllegalArgumentException if newRegions is null or is not a reordering of the current regions
+	 */
+	public void permuteRegions(Region[] newRegions)
+	{
+		if(newRegions == null || newRegions.length < numRegions)
+			throw new IllegalArgumentException();
+		int[] from = new int[numRegions];//Place each region is moved from, indexed by its new place
+		boolean[] taken = new boolean[numRegions];
+		boolean moved = false;
+		for(int i = 0; i < numRegions; i++) {
+			from[i] = -1;
+			for(int j = 0; j < numRegions; j++)
+				if(!taken[j] && regions[j] == newRegions[i] && newRegions[i] != null)
+					from[i] = j;
+			if(from[i] < 0)
+				throw new IllegalArgumentException();
+			taken[from[i]] = true;
+			moved |= from[i] != i;
+		}
+		if(!moved) {
+			setRegions(newRegions);
+			return;
+		}
+
+		int firstRoot = beginIndex/teamsPerRegion;//Slot holding the winner of the first region
+
+		//Scores each region winner has past its region, kept by the region's old place
+		List<List<Integer>> lateScores = new ArrayList<List<Integer>>(numRegions);
+		for(int i = 0; i < numRegions; i++) {
+			int root = firstRoot+i;
+			List<Integer> scores = new ArrayList<Integer>();
+			for(int index = root/2; index >= 1 && slotTeam[root] != EMPTY && slotTeam[index] == slotTeam[root]; index /= 2)
+				scores.add(slotScore[index]);
+			lateScores.add(scores);
+		}
+
+		//Undo every game between region winners
+		for(int root = firstRoot; root < firstRoot+numRegions; root++) {
+			if(winnerOf(root) >= 0)
+				revertGame(root);
+			else if(slotTeam[root] != EMPTY && slotTeam[root/2] == slotTeam[root])
+				clearAdvance(root/2);
+		}
+
+		//Move each region's slots as a block. Nothing is left above the regions, so every cursor is inside them
+		short[] oldTeams = slotTeam.clone();
+		int[] oldScores = slotScore.clone();
+		BitSet oldWinners = (BitSet)winners.clone();
+		int[] oldTeamSlots = teamSlots.clone();
+		for(int i = 0; i < numRegions; i++) {
+			if(from[i] == i)
+				continue;
+			for(int width = 1; width <= teamsPerRegion; width *= 2) {
+				int newStart = (firstRoot+i)*width;
+				int oldStart = (firstRoot+from[i])*width;
+				for(int offset = 0; offset < width; offset++) {
+					int slot = newStart+offset;
+					short id = oldTeams[oldStart+offset];
+					slotTeam[slot] = id;
+					slotScore[slot] = oldScores[oldStart+offset];
+					winners.set(slot, oldWinners.get(oldStart+offset));
+					touch(slot);
+					if(id == EMPTY)
+						continue;
+					if(slot >= beginIndex)
+						startSlots[id] = slot;
+					if(oldTeamSlots[id] == oldStart+offset)
+						teamSlots[id] = slot;
+				}
+			}
+		}
+		setRegions(newRegions);
+
+		//Play the games between region winners again, first with the scores already in the region winners' slots
+		for(int root = firstRoot; root < firstRoot+numRegions; root += 2)
+			finishGame(root);
+		for(int i = 0; i < numRegions; i++) {
+			int root = firstRoot+i;
+			if(slotTeam[root] == EMPTY)
+				continue;
+			short id = slotTeam[root];
+			for(int score : lateScores.get(from[i])) {
+				if(score == 0 || !TeamMask.get(aliveMask, id))
+					break;
+				int index = getCurrentIndex(startSlots[id]);
+				if(slotTeam[index] == EMPTY)
+					placeTeam(index, id);
+				setScore(index, score);
+				finishGame(index);
+			}
+		}
+		rosterChanged = true;
+		publish();
+	}
+
 	public List<TeamInterface> getOpponents(TeamInterface team)
 	{
 		if(team == null)
@@ -742,31 +1697,121 @@ public class Bracket
 			return null;
 		
 		List<TeamInterface> opponents = new LinkedList<TeamInterface>();
-		HalfGame curr = bracket[index];
-		while(curr != null && curr.getTeam().equals(team) && index > 1) {
-			try {
-				TeamInterface opponent = bracket[getOpponent(index)].getTeam();
-				if(opponent != null)
-					opponents.add(opponent);
-			} catch(NullPointerException e){}
+		short id = slotTeam[index];
+		while(slotTeam[index] == id && index > 1) {
+			TeamInterface opponent = teamAt(getOpponent(index));
+			if(opponent != null)
+				opponents.add(opponent);
 			
 			index /= 2;
-			curr = bracket[index];
 		}
 		return opponents;
 	}
 	
 	public TeamInterface getChampion()
 	{
-		HalfGame champion = bracket[1];
-		if(champion == null || champion.getTeam() == null)
-			return null;
-		return champion.getTeam();
+		return teamAt(1);
+	}
+	
+	/**
+	 * Returns the latest published version of the bracket. The snapshot never changes, so it can be
+	 * read from another thread while scores are still being entered into the bracket.
+	 * 
+	 * @return snapshot An immutable copy of the bracket as of the last completed change
+	 * 
+	 * @see BracketSnapshot
+	 */
+	public BracketSnapshot getSnapshot()
+	{
+		return snapshot;
+	}
+	
+	/**
+	 * Publishes a new snapshot holding every slot and team that changed since the last one. Called once at the
+	 * end of each public method that changes the bracket, so readers never see a change half done.
+	 */
+	private void publish()
+	{
+		TeamInterface[] table = null;
+		int[] slots = null;
+		if(rosterChanged) {
+			table = teamTable;
+			slots = new int[teamTable.length];
+			for(int i = beginIndex; i <= endIndex; i++)
+				if(slotTeam[i] != EMPTY)
+					slots[slotTeam[i]] = i;
+			rosterChanged = false;
+		}
+		snapshot = snapshot.update(dirtySlots, dirtyTeams, slotTeam, slotScore, table, slots);
+		dirtySlots.clear();
+		dirtyTeams.clear();
+		
+		if(pendingEvents.isEmpty())
+			return;
+		BracketEvent[] events = pendingEvents.toArray(new BracketEvent[pendingEvents.size()]);
+		pendingEvents.clear();//Cleared first in case a listener changes the bracket again
+		if(!queuedListeners.isEmpty())
+			for(BracketEvent event : events)
+				queuedEvents.add(event);
+		for(BracketListener listener : synchronousListeners)
+			for(BracketEvent event : events)
+				listener.bracketChanged(event);
+	}
+	
+	/**
+	 * Registers a listener that is told about every game result that changes in the bracket
+	 * 
+	 * @param listener The listener to add
+	 * @param dispatch SYNCHRONOUS to receive events as soon as each change is complete, QUEUED
+	 * to receive them when dispatchQueuedEvents is called
+	 * 
+	 * @throws IllegalArgumentException if either parameter is null
+	 */
+	public void addBracketListener(BracketListener listener, BracketListener.Dispatch dispatch)
+	{
+		if(listener == null || dispatch == null)
+			throw new IllegalArgumentException();
+		if(dispatch == BracketListener.Dispatch.SYNCHRONOUS)
+			synchronousListeners.add(listener);
+		else
+			queuedListeners.add(listener);
+	}
+	
+	/**
+	 * Stops a listener from receiving events
+	 * 
+	 * @param listener The listener to remove
+	 */
+	public void removeBracketListener(BracketListener listener)
+	{
+		synchronousListeners.remove(listener);
+		queuedListeners.remove(listener);
+		if(queuedListeners.isEmpty())
+			queuedEvents.clear();
+	}
+	
+	/**
+	 * Delivers every event held for QUEUED listeners, on the calling thread. May be called from
+	 * a different thread than the one changing the bracket.
+	 * 
+	 * @return numEvents The number of events delivered
+	 */
+	public int dispatchQueuedEvents()
+	{
+		int numEvents = 0;
+		BracketEvent event;
+		while((event = queuedEvents.poll()) != null) {
+			for(BracketListener listener : queuedListeners)
+				listener.bracketChanged(event);
+			numEvents++;
+		}
+		return numEvents;
 	}
 	
 	/**
 	 * Searches the bracket for the team specified by the string name
-	 * Returns null if not found. The search is not case-sensitive
+	 * Returns null if not found. The search is not case-sensitive and
+	 * is a single lookup in the bracket's name index
 	 * 
 	 * @param name The bracket will return a team object that whose name matches the name
 	 * 
@@ -776,17 +1821,20 @@ public class Bracket
 	{
 		if(name == null || name.length() < 1)
 			return null;
-		name = name.trim().toLowerCase();
-		for(int i = beginIndex; i < endIndex+1; i++)
-		{
-			if(bracket[i] != null)
-			{
-				String lowerName = bracket[i].getTeam().getName().toLowerCase();
-				if(lowerName.equals(name))
-					return bracket[i].getTeam();
-			}
-		}
-		return null;
+		return nameIndex.get(normalize(name));
+	}
+	
+	/**
+	 * Returns the key used for a team name in the name index. Names are matched
+	 * without regard to case or surrounding whitespace
+	 * 
+	 * @param name The name of a team
+	 * 
+	 * @return key The normalized name
+	 */
+	private static String normalize(String name)
+	{
+		return name.trim().toLowerCase(Locale.ROOT);
 	}
 	
 	/**
@@ -803,42 +1851,21 @@ public class Bracket
 	 */
 	public String toString()
 	{
-		int endRound = beginIndex;
-		int roundTotal = this.teamsPerRegion*this.numRegions;
-		String bar = "===============================================================";
-		String string = "";
-		String line = "";
-		boolean emptyRound = true;
-		for(int i = endIndex; i > 1; i-=2) {
-			
-			if(bracket[i] != null) {
-				line += String.format("%3s %-20s %-5d",
-						"#"+bracket[i].getTeam().getSeed(),bracket[i].getTeam().getName()+": ",bracket[i].getScore());
-				emptyRound = false;
-			} else
-				line += String.format("%-30s","TBD");
-			
-			if(bracket[i-1] != null) {
-				line += String.format("%3s %-20s %-5d%n",
-						"#"+bracket[i-1].getTeam().getSeed(),bracket[i-1].getTeam().getName()+": ",bracket[i-1].getScore());
-				emptyRound = false;
-			} else
-				line += String.format("%-30s%n","TBD");
-
-			if(endRound == i-1) {
-				if(emptyRound)
-					break;
-				string += String.format("%s%n%s%n%s%n",bar,"Round of "+roundTotal+":",bar)+line;
-				emptyRound = true;
-				endRound /= 2;
-				roundTotal /= 2;
-				line = "";
-			}
-		}
-		if(bracket[1] != null)
-			string += String.format("Champion: %3s %-27s%n%s%n",
-					"#"+bracket[1].getTeam().getSeed(),bracket[1].getTeam().getName(),bar);
-		
-		return string;
+		return renderer.render(snapshot);
+	}
+	
+	/**
+	 * Writes the same text as toString into the Appendable passed. Only the rounds that changed since
+	 * the bracket was last rendered are built again.
+	 * 
+	 * @param out Where the bracket is written
+	 * 
+	 * @throws IOException if out throws one
+	 * 
+	 * @see BracketRenderer
+	 */
+	public void render(Appendable out) throws IOException
+	{
+		renderer.render(snapshot, out);
 	}
 }
@@ -0,0 +1,130 @@
+package model.bracket;
+
+import model.team.TeamInterface;
+
+/**
+ * A single change to the results of a bracket, sent to every BracketListener of the bracket.
+ * Events are immutable. The events of one change to the bracket are delivered together once the
+ * change is complete, in the order they happened.
+ *
+ * @author Clay Mackenthun
+ *
+ * @see BracketListener
+ * @see Bracket#addBracketListener(BracketListener, BracketListener.Dispatch)
+ */
+public final class BracketEvent
+{
+	/**
+	 * The kinds of changes a bracket reports
+	 */
+	public enum Type
+	{
+		/** Both scores of a game have been entered and the team won it */
+		GAME_COMPLETED,
+		/** The result of a game the team had won was taken back */
+		GAME_REVERTED,
+		/** The team lost a game and is out of the tournament */
+		TEAM_ELIMINATED,
+		/** A team that had been eliminated is back in the tournament */
+		TEAM_REVIVED,
+		/** The team won the championship game */
+		CHAMPION_SET,
+		/** The team's score in a game was entered or changed. Sent before any result the score decides */
+		SCORE_CHANGED
+	}
+
+	private final Type type;
+	private final int slot;
+	private final int round;
+	private final TeamInterface team;
+	private final TeamInterface opponent;
+	private final int teamScore;
+	private final int opponentScore;
+	private final long version;
+
+	BracketEvent(Type type, int slot, int round, TeamInterface team, TeamInterface opponent,
+			int teamScore, int opponentScore, long version)
+	{
+		this.type = type;
+		this.slot = slot;
+		this.round = round;
+		this.team = team;
+		this.opponent = opponent;
+		this.teamScore = teamScore;
+		this.opponentScore = opponentScore;
+		this.version = version;
+	}
+
+	public Type getType()
+	{
+		return type;
+	}
+
+	/**
+	 * Returns the slot of the game, which is the slot its winner advances to. The championship
+	 * game is slot 1.
+	 *
+	 * @return slot The index of the game in the bracket
+	 */
+	public int getSlot()
+	{
+		return slot;
+	}
+
+	/**
+	 * Returns the round of the game, the first round being round 1
+	 *
+	 * @return round The round the game was played in
+	 */
+	public int getRound()
+	{
+		return round;
+	}
+
+	/**
+	 * Returns the team the event is about. The winner for GAME_COMPLETED, GAME_REVERTED and
+	 * CHAMPION_SET, the team whose score changed for SCORE_CHANGED and the eliminated or revived
+	 * team otherwise.
+	 *
+	 * @return team The team the event is about
+	 */
+	public TeamInterface getTeam()
+	{
+		return team;
+	}
+
+	/**
+	 * Returns the other team in the game
+	 *
+	 * @return opponent The team's opponent, null if the game has no opponent yet
+	 */
+	public TeamInterface getOpponent()
+	{
+		return opponent;
+	}
+
+	public int getTeamScore()
+	{
+		return teamScore;
+	}
+
+	public int getOpponentScore()
+	{
+		return opponentScore;
+	}
+
+	/**
+	 * Returns the version of the snapshot the bracket published with this change
+	 *
+	 * @return version The version of the BracketSnapshot that includes this event
+	 */
+	public long getVersion()
+	{
+		return version;
+	}
+
+	public String toString()
+	{
+		return type+" round "+round+": "+team+" "+teamScore+" - "+opponentScore+" "+opponent;
+	}
+}
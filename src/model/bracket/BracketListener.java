@@ -0,0 +1,31 @@
+package model.bracket;
+
+/**
+ * Receives the results of a bracket as they change, so that anything built from the results can be
+ * updated one game at a time instead of being worked out again from the whole bracket.
+ *
+ * @author Clay Mackenthun
+ *
+ * @see BracketEvent
+ * @see Bracket#addBracketListener(BracketListener, Dispatch)
+ */
+public interface BracketListener
+{
+	/**
+	 * How the events of a bracket are delivered to a listener
+	 */
+	enum Dispatch
+	{
+		/** Events are delivered on the thread that changed the bracket, as soon as the change is complete */
+		SYNCHRONOUS,
+		/** Events are held until Bracket.dispatchQueuedEvents is called, on the thread that calls it */
+		QUEUED
+	}
+
+	/**
+	 * Called once for each event, in the order the events happened
+	 *
+	 * @param event The change to the bracket
+	 */
+	public void bracketChanged(BracketEvent event);
+}
@@ -0,0 +1,179 @@
+package model.bracket;
+
+import java.io.IOException;
+
+/**
+ * Writes the text form of a bracket, one round of games at a time, into any Appendable. Each round
+ * is kept after it is built, so when the next snapshot of the same bracket is rendered only the
+ * rounds with a changed slot are built again. Columns have fixed widths and are padded by hand, and
+ * the text of each team's cell is built once and reused for every game the team plays in.
+ *
+ * The output looks like:
+ *
+ * #SEED TEAMNAME: SCORE	#SEED TEAMNAME: SCORE
+ * #SEED TEAMNAME: SCORE	TBD (if team has not yet been determined or entered)
+ *
+ * with a header before each round and a line naming the champion at the end.
+ *
+ * @author Clay Mackenthun
+ *
+ * @see BracketSnapshot
+ */
+public final class BracketRenderer
+{
+	private static final String BAR = "===============================================================";
+	private static final String NEWLINE = System.lineSeparator();
+	private static final int SEED_WIDTH = 3;
+	private static final int NAME_WIDTH = 20;
+	private static final int SCORE_WIDTH = 5;
+	private static final int CELL_WIDTH = SEED_WIDTH+1+NAME_WIDTH+1+SCORE_WIDTH;
+	private static final int CHAMPION_WIDTH = 27;
+
+	private BracketSnapshot rendered;//Snapshot the cached text was built from
+	private String[] rounds;//Text of each round indexed by depth, null if every slot of the round is empty
+	private String[] teamCells;//Seed and name columns of each team's cell, indexed by id
+
+	/**
+	 * Renders the snapshot into a String
+	 *
+	 * @param snapshot The version of the bracket to render
+	 *
+	 * @return text The text form of the bracket
+	 */
+	public synchronized String render(BracketSnapshot snapshot)
+	{
+		StringBuilder builder = new StringBuilder();
+		try {
+			render(snapshot, builder);
+		} catch (IOException e) {
+			throw new AssertionError(e);//StringBuilder does not throw
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Writes the snapshot into the Appendable passed. Rounds that have not changed since the last
+	 * snapshot this renderer wrote are copied from its cache.
+	 *
+	 * @param snapshot The version of the bracket to render
+	 * @param out Where the text is written
+	 *
+	 * @throws IOException if out throws one
+	 * @throws IllegalArgumentException if either parameter is null
+	 */
+	public synchronized void render(BracketSnapshot snapshot, Appendable out) throws IOException
+	{
+		if(snapshot == null || out == null)
+			throw new IllegalArgumentException();
+
+		int depth = snapshot.getDepth();
+		boolean[] changed = new boolean[depth+1];
+		if(rendered == null || !rendered.sameTeams(snapshot)) {
+			rounds = new String[depth+1];
+			buildTeamCells(snapshot);
+			for(int d = 0; d <= depth; d++)
+				changed[d] = true;
+		} else if(rendered != snapshot)
+			snapshot.markChanged(rendered, changed);
+		rendered = snapshot;
+
+		for(int d = depth; d > 0; d--)
+			if(changed[d])
+				rounds[d] = buildRound(snapshot, d);
+		for(int d = depth; d > 0 && rounds[d] != null; d--)
+			out.append(rounds[d]);
+
+		short[] champion = new short[1];
+		snapshot.round(0, champion, new int[1]);
+		if(champion[0] != BracketSnapshot.EMPTY) {
+			out.append("Champion: ");
+			padLeft(out, "#"+snapshot.getSeed(champion[0]), SEED_WIDTH);
+			out.append(' ');
+			padRight(out, snapshot.getName(champion[0]), CHAMPION_WIDTH);
+			out.append(NEWLINE).append(BAR).append(NEWLINE);
+		}
+	}
+
+	/**
+	 * Builds the seed and name columns of the cell of every team in the snapshot
+	 */
+	private void buildTeamCells(BracketSnapshot snapshot)
+	{
+		teamCells = new String[snapshot.getNumTeams()];
+		StringBuilder cell = new StringBuilder(CELL_WIDTH);
+		for(int id = 0; id < teamCells.length; id++) {
+			if(snapshot.getName(id) == null)
+				continue;
+			cell.setLength(0);
+			try {
+				padLeft(cell, "#"+snapshot.getSeed(id), SEED_WIDTH);
+				cell.append(' ');
+				padRight(cell, snapshot.getName(id)+": ", NAME_WIDTH);
+			} catch (IOException e) {
+				throw new AssertionError(e);//StringBuilder does not throw
+			}
+			cell.append(' ');
+			teamCells[id] = cell.toString();
+		}
+	}
+
+	/**
+	 * Builds the text of the round at the given depth, its header included. Games are listed
+	 * from the last slot of the round to the first.
+	 *
+	 * @return text The text of the round, null if none of its slots hold a team
+	 */
+	private String buildRound(BracketSnapshot snapshot, int depth)
+	{
+		int games = 1 << depth;
+		short[] ids = new short[games];
+		int[] scores = new int[games];
+		snapshot.round(depth, ids, scores);
+
+		boolean emptyRound = true;
+		for(short id : ids)
+			if(id != BracketSnapshot.EMPTY)
+				emptyRound = false;
+		if(emptyRound)
+			return null;
+
+		StringBuilder round = new StringBuilder((games/2)*(2*CELL_WIDTH+NEWLINE.length())+3*BAR.length());
+		round.append(BAR).append(NEWLINE)
+				.append("Round of ").append(games).append(':').append(NEWLINE)
+				.append(BAR).append(NEWLINE);
+		try {
+			for(int i = games-1; i > 0; i -= 2) {
+				appendCell(round, ids[i], scores[i]);
+				appendCell(round, ids[i-1], scores[i-1]);
+				round.append(NEWLINE);
+			}
+		} catch (IOException e) {
+			throw new AssertionError(e);//StringBuilder does not throw
+		}
+		return round.toString();
+	}
+
+	private void appendCell(StringBuilder out, short id, int score) throws IOException
+	{
+		if(id == BracketSnapshot.EMPTY)
+			padRight(out, "TBD", CELL_WIDTH);
+		else {
+			out.append(teamCells[id]);
+			padRight(out, Integer.toString(score), SCORE_WIDTH);
+		}
+	}
+
+	private static void padLeft(Appendable out, String text, int width) throws IOException
+	{
+		for(int i = text.length(); i < width; i++)
+			out.append(' ');
+		out.append(text);
+	}
+
+	private static void padRight(Appendable out, String text, int width) throws IOException
+	{
+		out.append(text);
+		for(int i = text.length(); i < width; i++)
+			out.append(' ');
+	}
+}
@@ -0,0 +1,436 @@
+package model.bracket;
+
+import model.team.TeamInterface;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable copy of a Bracket at one point in time. A Bracket publishes a new snapshot at the end
+ * of every change, so a snapshot can be read from any thread without locking while scores keep being
+ * entered, and every answer it gives comes from the same version of the bracket.
+ *
+ * The slots are stored as a persistent binary tree that mirrors the bracket's heap layout (slot 1 is
+ * the root and slot i has children 2i and 2i+1). A new version only copies the slots that changed and
+ * their ancestors; every other subtree is shared with the previous version. The tree needs every team
+ * to be the same number of games from the root, so the number of teams must be a power of two.
+ *
+ * The name, seed, wins and status of each team are copied into the snapshot, since the TeamInterface
+ * objects themselves keep changing. They are kept in chunks of CHUNK teams, and a new version only
+ * copies the chunks of the teams that changed, sharing the rest. Adding or removing a team copies
+ * them all.
+ *
+ * @author Clay Mackenthun
+ *
+ * @see Bracket#getSnapshot()
+ */
+public final class BracketSnapshot
+{
+	/**
+	 * A single slot of the bracket and the subtrees of the slots that feed into it
+	 */
+	private static final class Node
+	{
+		private final Node left;
+		private final Node right;
+		private final short team;
+		private final int score;
+
+		private Node(Node left, Node right, short team, int score) {
+			this.left = left;
+			this.right = right;
+			this.team = team;
+			this.score = score;
+		}
+	}
+
+	/**
+	 * The name, seed, wins and status of a team when the snapshot was made
+	 */
+	private static final class TeamState
+	{
+		private final String name;
+		private final int seed;
+		private final int wins;
+		private final boolean alive;
+
+		private TeamState(TeamInterface team) {
+			this.name = team.getName();
+			this.seed = team.getSeed();
+			this.wins = team.getWins();
+			this.alive = team.is_alive();
+		}
+	}
+
+	static final short EMPTY = -1;
+	private static final int CHUNK = 8;//Teams per chunk of team states
+
+	private final long version;
+	private final int numTeams;//Number of teams the bracket holds when full
+	private final int beginIndex;//First slot of the first round
+	private final int depth;//Depth of the first round slots, the root being depth 0
+	private final Node root;
+	private final TeamInterface[] teams;//Teams indexed by their id
+	private final Map<TeamInterface,Integer> ids;//Id of each team
+	private final int[] startSlots;//First round slot of each team, indexed by id
+	private final TeamState[][] states;//State of each team, in chunks indexed by id/CHUNK. Null for ids without a team
+
+	/**
+	 * Creates the snapshot of an empty bracket
+	 *
+	 * @param numTeams The number of teams the bracket holds when full. Must be a power of two
+	 * 
+	 * @throws IllegalArgumentException if numTeams is not a power of two
+	 */
+	BracketSnapshot(int numTeams)
+	{
+		if(numTeams < 1 || (numTeams & (numTeams-1)) != 0)
+			throw new IllegalArgumentException();
+		this.version = 0;
+		this.numTeams = numTeams;
+		this.beginIndex = numTeams;
+		this.depth = 31-Integer.numberOfLeadingZeros(numTeams);
+		this.teams = new TeamInterface[numTeams];
+		this.ids = Collections.emptyMap();
+		this.startSlots = new int[numTeams];
+		this.states = new TeamState[(numTeams+CHUNK-1)/CHUNK][CHUNK];
+
+		//Every empty subtree at the same depth looks the same, so one node per depth is shared by all of them
+		Node empty = new Node(null, null, EMPTY, 0);
+		for(int i = 0; i < depth; i++)
+			empty = new Node(empty, empty, EMPTY, 0);
+		this.root = empty;
+	}
+
+	private BracketSnapshot(BracketSnapshot previous, Node root, TeamInterface[] teams,
+			Map<TeamInterface,Integer> ids, int[] startSlots, TeamState[][] states)
+	{
+		this.version = previous.version+1;
+		this.numTeams = previous.numTeams;
+		this.beginIndex = previous.beginIndex;
+		this.depth = previous.depth;
+		this.root = root;
+		this.teams = teams;
+		this.ids = ids;
+		this.startSlots = startSlots;
+		this.states = states;
+	}
+
+	/**
+	 * Creates the next version of the bracket from this one. Only the slots marked as changed and their
+	 * ancestors are copied, the rest of the tree is shared, and only the chunks of the teams marked as
+	 * changed are copied.
+	 *
+	 * @param changed The slots that changed since this snapshot was made
+	 * @param changedTeams The ids of the teams whose name, wins or status changed since this snapshot was made
+	 * @param slotTeam The id of the team in each slot of the bracket
+	 * @param slotScore The score of the team in each slot of the bracket
+	 * @param teamTable The teams of the bracket indexed by id, null if no team has been added or removed
+	 * @param slots The first round slot of each team indexed by id, null if no team has been added or removed.
+	 * The array is kept by the snapshot and must not be changed afterwards
+	 *
+	 * @return snapshot The new version of the bracket
+	 */
+	BracketSnapshot update(BitSet changed, BitSet changedTeams, short[] slotTeam, int[] slotScore,
+			TeamInterface[] teamTable, int[] slots)
+	{
+		BitSet copied = new BitSet(slotTeam.length);
+		for(int slot = changed.nextSetBit(1); slot >= 0; slot = changed.nextSetBit(slot+1))
+			for(int i = slot; i >= 1 && !copied.get(i); i /= 2)
+				copied.set(i);
+		Node newRoot = copy(root, 1, copied, slotTeam, slotScore);
+
+		TeamInterface[] newTeams = teams;
+		Map<TeamInterface,Integer> newIds = ids;
+		if(teamTable != null) {
+			newTeams = teamTable.clone();
+			newIds = new IdentityHashMap<TeamInterface,Integer>();
+			for(int id = 0; id < newTeams.length; id++)
+				if(newTeams[id] != null)
+					newIds.put(newTeams[id], id);
+		}
+		int[] newSlots = (slots != null) ? slots : startSlots;
+
+		TeamState[][] newStates = states;
+		if(teamTable != null) {
+			newStates = new TeamState[states.length][CHUNK];
+			for(int id = 0; id < newTeams.length; id++)
+				if(newTeams[id] != null)
+					newStates[id/CHUNK][id%CHUNK] = new TeamState(newTeams[id]);
+		}
+		else if(!changedTeams.isEmpty()) {
+			newStates = states.clone();
+			for(int id = changedTeams.nextSetBit(0); id >= 0; id = changedTeams.nextSetBit(id+1)) {
+				int chunk = id/CHUNK;
+				if(newStates[chunk] == states[chunk])
+					newStates[chunk] = states[chunk].clone();
+				newStates[chunk][id%CHUNK] = (newTeams[id] == null) ? null : new TeamState(newTeams[id]);
+			}
+		}
+		return new BracketSnapshot(this, newRoot, newTeams, newIds, newSlots, newStates);
+	}
+
+	/**
+	 * Copies the node for the slot passed if it or one of the slots under it changed
+	 */
+	private static Node copy(Node node, int slot, BitSet copied, short[] slotTeam, int[] slotScore)
+	{
+		if(!copied.get(slot))
+			return node;
+		Node left = null;
+		Node right = null;
+		if(node.left != null) {
+			left = copy(node.left, 2*slot, copied, slotTeam, slotScore);
+			right = copy(node.right, 2*slot+1, copied, slotTeam, slotScore);
+		}
+		return new Node(left, right, slotTeam[slot], slotScore[slot]);
+	}
+
+	/**
+	 * Finds the node of the slot passed by following the bits of the slot index down from the root
+	 */
+	private Node node(int slot)
+	{
+		Node node = root;
+		for(int bit = 30-Integer.numberOfLeadingZeros(slot); bit >= 0; bit--)
+			node = ((slot >> bit) & 1) == 0 ? node.left : node.right;
+		return node;
+	}
+
+	/**
+	 * Returns the id of the team passed, -1 if the team was not in the bracket when the snapshot was made
+	 */
+	private int idOf(TeamInterface team)
+	{
+		Integer id = ids.get(team);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Returns the version of the bracket this snapshot was taken from. Every change to the bracket
+	 * publishes a snapshot with a higher version.
+	 *
+	 * @return version The version number of this snapshot
+	 */
+	public long getVersion()
+	{
+		return version;
+	}
+
+	/**
+	 * Returns a list of all of the teams that were in the bracket
+	 *
+	 * @return teamList An unmodifiable List of the teams
+	 */
+	public List<TeamInterface> getTeams()
+	{
+		List<TeamInterface> list = new ArrayList<TeamInterface>(ids.size());
+		for(TeamInterface team : teams)
+			if(team != null)
+				list.add(team);
+		return Collections.unmodifiableList(list);
+	}
+
+	/**
+	 * Returns the number of games the team had won
+	 *
+	 * @param team A team in the bracket
+	 *
+	 * @return wins The team's wins. -1 if the team was not in the bracket
+	 */
+	public int getWins(TeamInterface team)
+	{
+		int id = idOf(team);
+		return id < 0 ? -1 : state(id).wins;
+	}
+
+	/**
+	 * Returns true if the team had not been eliminated
+	 *
+	 * @param team A team in the bracket
+	 *
+	 * @return alive False if the team had been eliminated or was not in the bracket
+	 */
+	public boolean isAlive(TeamInterface team)
+	{
+		int id = idOf(team);
+		return id >= 0 && state(id).alive;
+	}
+
+	/**
+	 * Returns a List of the scores of the team in order of oldest to newest
+	 *
+	 * @param team The team the scores are coming from
+	 *
+	 * @return scores A List of scores in order of oldest score to newest score. Empty if the team was not in the bracket
+	 */
+	public List<Integer> getScores(TeamInterface team)
+	{
+		List<Integer> scores = new ArrayList<Integer>();
+		int id = idOf(team);
+		if(id < 0)
+			return scores;
+		for(int slot = startSlots[id]; slot > 1; slot /= 2) {
+			Node node = node(slot);
+			if(node.team != id || node.score <= 0)
+				break;
+			scores.add(node.score);
+		}
+		return scores;
+	}
+
+	/**
+	 * Returns the team that won the tournament
+	 *
+	 * @return champion The champion, null if the championship had not been decided
+	 */
+	public TeamInterface getChampion()
+	{
+		return root.team == EMPTY ? null : teams[root.team];
+	}
+
+	/**
+	 * Returns a string with the style:
+	 *
+	 * #SEED TEAMNAME: SCORE	#SEED TEAMNAME: SCORE
+	 * #SEED TEAMNAME: SCORE	#SEED TEAMNAME: SCORE
+	 * ...
+	 * #SEED TEAMNAME: SCORE	#SEED TEAMNAME: SCORE
+	 * 		(Blank line to indicate a new round of games)
+	 * #SEED TEAMNAME: SCORE	#SEED TEAMNAME: SCORE
+	 * #SEED TEAMNAME: SCORE	TBD (if team has not yet been determined or entered)
+	 *
+	 * @see BracketRenderer
+	 */
+	public String toString()
+	{
+		return new BracketRenderer().render(this);
+	}
+
+	//Used by BracketRenderer
+
+	int getNumTeams()
+	{
+		return numTeams;
+	}
+
+	int getDepth()
+	{
+		return depth;
+	}
+
+	String getName(int id)
+	{
+		return state(id).name;
+	}
+
+	int getSeed(int id)
+	{
+		return state(id).seed;
+	}
+
+	int getWins(int id)
+	{
+		return state(id).wins;
+	}
+
+	private TeamState state(int id)
+	{
+		return states[id/CHUNK][id%CHUNK];
+	}
+
+	//Used by PickFourSolver
+
+	/**
+	 * Copies the team id of every slot into an array laid out like the bracket's heap, slot 1 being
+	 * the champion
+	 *
+	 * @param slots Filled with the id of the team in each slot, EMPTY if there is none. Must hold 2*getNumTeams() slots
+	 */
+	void fillSlots(short[] slots)
+	{
+		fillSlots(root, 1, slots);
+	}
+
+	private static void fillSlots(Node node, int slot, short[] slots)
+	{
+		slots[slot] = node.team;
+		if(node.left != null) {
+			fillSlots(node.left, 2*slot, slots);
+			fillSlots(node.right, 2*slot+1, slots);
+		}
+	}
+
+	/**
+	 * Returns true if both snapshots hold the same teams with the same names and seeds
+	 */
+	boolean sameTeams(BracketSnapshot other)
+	{
+		if(numTeams != other.numTeams || !Arrays.equals(teams, other.teams))
+			return false;
+		for(int chunk = 0; chunk < states.length; chunk++) {
+			if(states[chunk] == other.states[chunk])
+				continue;//Shared, so nothing in it changed
+			for(int i = 0; i < CHUNK; i++) {
+				TeamState state = states[chunk][i];
+				TeamState otherState = other.states[chunk][i];
+				if((state == null) != (otherState == null))
+					return false;
+				if(state != null && (!state.name.equals(otherState.name) || state.seed != otherState.seed))
+					return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Marks the depth of every slot whose team or score differs from the other snapshot of the same
+	 * bracket. Subtrees shared by both snapshots are skipped without being visited.
+	 *
+	 * @param other A snapshot of the same bracket
+	 * @param changedDepths Set to true for each depth with a changed slot, the root being depth 0
+	 */
+	void markChanged(BracketSnapshot other, boolean[] changedDepths)
+	{
+		markChanged(root, other.root, 0, changedDepths);
+	}
+
+	private static void markChanged(Node node, Node other, int depth, boolean[] changedDepths)
+	{
+		if(node == other)
+			return;
+		if(node.team != other.team || node.score != other.score)
+			changedDepths[depth] = true;
+		if(node.left != null) {
+			markChanged(node.left, other.left, depth+1, changedDepths);
+			markChanged(node.right, other.right, depth+1, changedDepths);
+		}
+	}
+
+	/**
+	 * Copies the team ids and scores of every slot at the given depth, in slot order
+	 *
+	 * @param depth The depth of the round, the root being depth 0
+	 * @param ids Filled with the id of the team in each slot, EMPTY if there is none
+	 * @param scores Filled with the score in each slot
+	 */
+	void round(int depth, short[] ids, int[] scores)
+	{
+		collect(root, depth, 0, ids, scores);
+	}
+
+	private static int collect(Node node, int depth, int position, short[] ids, int[] scores)
+	{
+		if(depth == 0) {
+			ids[position] = node.team;
+			scores[position] = node.score;
+			return position+1;
+		}
+		position = collect(node.left, depth-1, position, ids, scores);
+		return collect(node.right, depth-1, position, ids, scores);
+	}
+}
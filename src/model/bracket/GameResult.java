@@ -0,0 +1,93 @@
+package model.bracket;
+
+import model.team.TeamInterface;
+
+/**
+ * One game of a team in the bracket, seen from that team's side. A GameResult never changes; the
+ * bracket hands out the same object for a game until one of its teams, scores or its result changes.
+ *
+ * @author Clay Mackenthun
+ *
+ * @see Bracket#getGame(TeamInterface, int)
+ * @see Bracket#getGames(TeamInterface, GameResult[])
+ */
+public final class GameResult
+{
+	private final int round;
+	private final TeamInterface team;
+	private final TeamInterface opponent;
+	private final int score;
+	private final int opponentScore;
+	private final TeamInterface winner;
+
+	GameResult(int round, TeamInterface team, TeamInterface opponent, int score, int opponentScore, TeamInterface winner)
+	{
+		this.round = round;
+		this.team = team;
+		this.opponent = opponent;
+		this.score = score;
+		this.opponentScore = opponentScore;
+		this.winner = winner;
+	}
+
+	/**
+	 * @return round The round of the game, the first round being round 1
+	 */
+	public int getRound()
+	{
+		return round;
+	}
+
+	/**
+	 * @return team The team whose game this is
+	 */
+	public TeamInterface getTeam()
+	{
+		return team;
+	}
+
+	/**
+	 * @return opponent The other team in the game, null if it has not been determined
+	 */
+	public TeamInterface getOpponent()
+	{
+		return opponent;
+	}
+
+	/**
+	 * @return score The team's score, 0 if it has not been entered
+	 */
+	public int getScore()
+	{
+		return score;
+	}
+
+	/**
+	 * @return opponentScore The opponent's score, 0 if it has not been entered
+	 */
+	public int getOpponentScore()
+	{
+		return opponentScore;
+	}
+
+	/**
+	 * @return winner The team that won the game, null if the game has not been decided
+	 */
+	public TeamInterface getWinner()
+	{
+		return winner;
+	}
+
+	/**
+	 * @return won True if the team won the game
+	 */
+	public boolean isWon()
+	{
+		return winner != null && winner == team;
+	}
+
+	public String toString()
+	{
+		return "Round "+round+": "+team+" "+score+" vs "+opponent+" "+opponentScore;
+	}
+}
@@ -0,0 +1,177 @@
+package model.bracket;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Works out the most pick four points a set of picks can still earn. Every way the remaining games
+ * could go is taken into account, so picks that would have to meet each other are never both
+ * counted as winning that game.
+ *
+ * The answer comes from dynamic programming over the bracket's heap, from the first round up to
+ * the championship. For each slot the solver keeps the most points the games below it can give
+ * when each pick is the team that ends up in the slot, and the most points when some other team
+ * does. A game whose winner is already known only allows that winner. With k picks this is
+ * O(k) work per slot.
+ *
+ * Answers are cached for the version of the bracket they were worked out from, so refreshing a
+ * leaderboard only solves each distinct set of picks once per change to the bracket.
+ *
+ * @author Clay Mackenthun
+ *
+ * @see Bracket#getPickFourPoints()
+ */
+public final class PickFourSolver
+{
+	private static final int NONE = Integer.MIN_VALUE;//No team of that kind can be in the slot
+
+	private final Bracket bracket;
+	private BracketSnapshot solved;//Version of the bracket the cached answers are for
+	private short[] slots;//Team in each slot of the solved version
+	private boolean[] decided;//True for each slot whose team is known in the solved version
+	private final Map<Long,Integer> answers = new HashMap<Long,Integer>();//Answers keyed by the packed picks
+
+	/**
+	 * Creates a solver that always answers for the latest version of the bracket
+	 *
+	 * @param bracket The bracket the picks are from
+	 *
+	 * @throws IllegalArgumentException if bracket is null
+	 */
+	public PickFourSolver(Bracket bracket)
+	{
+		if(bracket == null)
+			throw new IllegalArgumentException();
+		this.bracket = bracket;
+	}
+
+	/**
+	 * Returns the most points the picks can still earn on top of the points they already have
+	 *
+	 * @param picks The team ids of the picks. Ids that are not in the bracket are ignored
+	 *
+	 * @return points The most points the picks can earn from the games left to play
+	 *
+	 * @throws IllegalArgumentException if picks is null
+	 */
+	public synchronized int maxRemainingPoints(int[] picks)
+	{
+		if(picks == null)
+			throw new IllegalArgumentException();
+		BracketSnapshot snapshot = bracket.getSnapshot();
+		if(snapshot != solved)
+			load(snapshot);
+
+		int[] ids = distinctPicks(picks);
+		Long key = pack(ids);
+		if(key != null) {
+			Integer answer = answers.get(key);
+			if(answer != null)
+				return answer;
+		}
+		int answer = solve(ids);
+		if(key != null)
+			answers.put(key, answer);
+		return answer;
+	}
+
+	/**
+	 * Reads the slots of a new version of the bracket and drops the answers of the old one
+	 */
+	private void load(BracketSnapshot snapshot)
+	{
+		int length = 2*snapshot.getNumTeams();
+		slots = new short[length];
+		snapshot.fillSlots(slots);
+		decided = new boolean[length];
+		int beginIndex = snapshot.getNumTeams();
+		for(int slot = 1; slot < length; slot++) {
+			//A team is known to be in a slot once it has won every game between its first round slot and this one
+			int gamesBelow = Integer.numberOfLeadingZeros(slot)-Integer.numberOfLeadingZeros(beginIndex);
+			decided[slot] = slots[slot] != BracketSnapshot.EMPTY && snapshot.getWins(slots[slot]) >= gamesBelow;
+		}
+		solved = snapshot;
+		answers.clear();
+	}
+
+	/**
+	 * Returns the picks in ascending order without repeats or ids that are not in the bracket
+	 */
+	private int[] distinctPicks(int[] picks)
+	{
+		int[] ids = new int[picks.length];
+		int numIds = 0;
+		for(int id : picks)
+			if(id >= 0 && id < solved.getNumTeams() && solved.getName(id) != null)
+				ids[numIds++] = id;
+		Arrays.sort(ids, 0, numIds);
+		int distinct = 0;
+		for(int i = 0; i < numIds; i++)
+			if(distinct == 0 || ids[distinct-1] != ids[i])
+				ids[distinct++] = ids[i];
+		return Arrays.copyOf(ids, distinct);
+	}
+
+	/**
+	 * Packs up to four ids into one key, null if there are more picks than fit
+	 */
+	private static Long pack(int[] ids)
+	{
+		if(ids.length > 4)
+			return null;
+		long key = ids.length;
+		for(int id : ids)
+			key = (key << 15) | id;
+		return key;
+	}
+
+	private int solve(int[] ids)
+	{
+		int picks = ids.length;
+		int length = slots.length;
+		int beginIndex = length/2;
+		int[] seeds = new int[picks];
+		for(int j = 0; j < picks; j++)
+			seeds[j] = solved.getSeed(ids[j]);
+
+		//points[slot*picks+j]: most points from the games below the slot when pick j ends up in it
+		//other[slot]: most points from the games below the slot when a team that is not a pick ends up in it
+		int[] points = new int[length*picks];
+		int[] other = new int[length];
+		int[] best = new int[length];
+		for(int slot = length-1; slot >= 1; slot--) {
+			if(slot >= beginIndex || decided[slot]) {
+				//Nothing left to play below this slot
+				int pick = Arrays.binarySearch(ids, slots[slot]);
+				for(int j = 0; j < picks; j++)
+					points[slot*picks+j] = (j == pick) ? 0 : NONE;
+				other[slot] = (pick >= 0) ? NONE : 0;
+				best[slot] = 0;
+				continue;
+			}
+			int left = 2*slot;
+			int right = left+1;
+			int max = NONE;
+			for(int j = 0; j < picks; j++) {
+				int fromLeft = points[left*picks+j];
+				int fromRight = points[right*picks+j];
+				int value = NONE;
+				if(fromLeft != NONE)
+					value = fromLeft+best[right]+seeds[j];
+				if(fromRight != NONE)
+					value = Math.max(value, fromRight+best[left]+seeds[j]);
+				points[slot*picks+j] = value;
+				max = Math.max(max, value);
+			}
+			int value = NONE;
+			if(other[left] != NONE)
+				value = other[left]+best[right];
+			if(other[right] != NONE)
+				value = Math.max(value, other[right]+best[left]);
+			other[slot] = value;
+			best[slot] = Math.max(max, value);
+		}
+		return best[1];
+	}
+}
@@ -0,0 +1,231 @@
+package model.player;
+
+import model.team.TeamInterface;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index from each team to the players that own it, have it as a pick four team or chose it to
+ * win the tournament, so a contest can look up the players of the few teams that won it instead
+ * of checking every team of every player.
+ *
+ * Teams are indexed by their id in the bracket, so teams that are not in a bracket are left out,
+ * and the whole index is built again by sync once the bracket's id generation has changed. The database
+ * indexes a player again each time it changes the player. Players changed any other way are found
+ * by their change count and indexed again by sync.
+ *
+ * @author Clay Mackenthun
+ *
+ * @see PlayerInterface#getChangeCount()
+ */
+public final class OwnerIndex
+{
+	/**
+	 * What the index holds for one player: the ids it was put under and its change count at the time
+	 */
+	private static final class Entry
+	{
+		private final int changes;
+		private final int[] owned;//Ids of the player's teams that are in the index
+		private final int[] picked;//Ids of the player's pick four teams that are in the index
+		private final int chosen;//Id of the player's chosen winner, -1 if it is not in the index
+
+		private Entry(int changes, int[] owned, int[] picked, int chosen) {
+			this.changes = changes;
+			this.owned = owned;
+			this.picked = picked;
+			this.chosen = chosen;
+		}
+	}
+
+	private final List<List<PlayerInterface>> owners;//Players that own each team, indexed by team id
+	private final List<List<PlayerInterface>> pickers;//Players with each team as a pick four team, indexed by team id
+	private final List<List<PlayerInterface>> choosers;//Players that chose each team to win, indexed by team id
+	private final Map<PlayerInterface,Entry> indexed = new IdentityHashMap<PlayerInterface,Entry>();//What was indexed for each player
+	private int idGeneration;//Id generation of the bracket when the index was built, -1 before sync
+
+	/**
+	 * Creates an empty index
+	 *
+	 * @param numTeams The number of teams the bracket holds, which bounds the team ids
+	 */
+	public OwnerIndex(int numTeams)
+	{
+		if(numTeams < 0)
+			throw new IllegalArgumentException();
+		owners = create(numTeams);
+		pickers = create(numTeams);
+		choosers = create(numTeams);
+		idGeneration = -1;
+	}
+
+	private static List<List<PlayerInterface>> create(int numTeams)
+	{
+		List<List<PlayerInterface>> lists = new ArrayList<List<PlayerInterface>>(numTeams);
+		for(int id = 0; id < numTeams; id++)
+			lists.add(new ArrayList<PlayerInterface>(2));
+		return lists;
+	}
+
+	/**
+	 * Indexes the player as it is now, replacing anything indexed for it before
+	 *
+	 * @param player The player to index
+	 *
+	 * @throws IllegalArgumentException if player is null
+	 */
+	public void index(PlayerInterface player)
+	{
+		if(player == null)
+			throw new IllegalArgumentException();
+		Entry entry = indexed.get(player);
+		if(entry != null)
+			removeEntries(player, entry);
+		int[] owned = put(owners, player.getTeams(), player);
+		int[] picked = put(pickers, player.getPickFourTeams(), player);
+		int chosen = put(choosers, player.getChosenWinner(), player) ? player.getChosenWinner().getId() : -1;
+		indexed.put(player, new Entry(player.getChangeCount(), owned, picked, chosen));
+	}
+
+	/**
+	 * Takes a player out of the index
+	 *
+	 * @param player The player to remove
+	 */
+	public void remove(PlayerInterface player)
+	{
+		Entry entry = indexed.remove(player);
+		if(entry != null)
+			removeEntries(player, entry);
+	}
+
+	/**
+	 * Brings the index up to date with the players passed. The index is built again if the team ids
+	 * have changed or players have been left out, otherwise only players whose change count differs
+	 * from when they were indexed are indexed again.
+	 *
+	 * @param players Every player that should be in the index
+	 * @param idGeneration The id generation of the bracket the teams are in
+	 * 
+	 * @see model.bracket.Bracket#getIdGeneration()
+	 */
+	public void sync(Collection<PlayerInterface> players, int idGeneration)
+	{
+		if(this.idGeneration != idGeneration) {
+			rebuild(players, idGeneration);
+			return;
+		}
+		for(PlayerInterface player : players) {
+			Entry entry = indexed.get(player);
+			if(entry == null || entry.changes != player.getChangeCount())
+				index(player);
+		}
+		if(indexed.size() > players.size())//A player was removed without being taken out of the index
+			rebuild(players, idGeneration);
+	}
+
+	private void rebuild(Collection<PlayerInterface> players, int idGeneration)
+	{
+		clear();
+		for(PlayerInterface player : players)
+			index(player);
+		this.idGeneration = idGeneration;
+	}
+
+	/**
+	 * Empties the index
+	 */
+	public void clear()
+	{
+		for(int id = 0; id < owners.size(); id++) {
+			owners.get(id).clear();
+			pickers.get(id).clear();
+			choosers.get(id).clear();
+		}
+		indexed.clear();
+		idGeneration = -1;
+	}
+
+	/**
+	 * @return owners The players that own the team, once for each time it is in their teams. The list must not be modified
+	 */
+	public List<PlayerInterface> getOwners(TeamInterface team)
+	{
+		return get(owners, team);
+	}
+
+	/**
+	 * @return pickers The players that have the team as a pick four team. The list must not be modified
+	 */
+	public List<PlayerInterface> getPickers(TeamInterface team)
+	{
+		return get(pickers, team);
+	}
+
+	/**
+	 * @return choosers The players that chose the team to win the tournament. The list must not be modified
+	 */
+	public List<PlayerInterface> getChoosers(TeamInterface team)
+	{
+		return get(choosers, team);
+	}
+
+	private static List<PlayerInterface> get(List<List<PlayerInterface>> lists, TeamInterface team)
+	{
+		if(team == null || team.getId() < 0 || team.getId() >= lists.size())
+			return Collections.emptyList();
+		return lists.get(team.getId());
+	}
+
+	/**
+	 * @return put True if the team is in a bracket and the player was put under its id
+	 */
+	private static boolean put(List<List<PlayerInterface>> lists, TeamInterface team, PlayerInterface player)
+	{
+		if(team == null || team.getId() < 0 || team.getId() >= lists.size())
+			return false;
+		lists.get(team.getId()).add(player);
+		return true;
+	}
+
+	/**
+	 * Puts the player under the id of each team passed
+	 *
+	 * @return ids The ids the player was put under
+	 */
+	private static int[] put(List<List<PlayerInterface>> lists, List<TeamInterface> teams, PlayerInterface player)
+	{
+		int[] ids = new int[teams.size()];
+		int numIds = 0;
+		for(TeamInterface team : teams)
+			if(put(lists, team, player))
+				ids[numIds++] = team.getId();
+		return Arrays.copyOf(ids, numIds);
+	}
+
+	/**
+	 * Removes every entry of the player from the ids it was indexed under. The player's lists may
+	 * have changed since, so the ids are the ones kept when it was indexed.
+	 */
+	private void removeEntries(PlayerInterface player, Entry entry)
+	{
+		for(int id : entry.owned)
+			removeAll(owners.get(id), player);
+		for(int id : entry.picked)
+			removeAll(pickers.get(id), player);
+		if(entry.chosen >= 0)
+			removeAll(choosers.get(entry.chosen), player);
+	}
+
+	private static void removeAll(List<PlayerInterface> players, PlayerInterface player)
+	{
+		for(int i = players.size()-1; i >= 0; i--)
+			if(players.get(i) == player)
+				players.remove(i);
+	}
+}
@@ -1,8 +1,8 @@
 package model.player;
 
 import model.team.TeamInterface;
+import model.team.TeamMask;
 import java.util.List;
-import java.util.LinkedList;
 
 
 public class Player implements PlayerInterface, Comparable<PlayerInterface>
@@ -12,9 +12,10 @@ public class Player implements PlayerInterface, Comparable<PlayerInterface>
 	private int predictedScore;
 	private double balance;
 	private int teamsPurchased;
-	private List<TeamInterface> teams;
-	private List<TeamInterface> pickFourTeams;
+	private TeamList teams;
+	private TeamList pickFourTeams;
 	private TeamInterface chosenWinner;
+	private int changes;//Changes to the player's contest entries other than changes made through its team lists
 	
 	public Player(String name,int teamsPurchased) {
 		this(name,teamsPurchased,null,null,null);
@@ -31,14 +32,14 @@ public class Player implements PlayerInterface, Comparable<PlayerInterface>
 		this.predictedScore = 0;
 		
 		if(teams == null)
-			this.teams  = new LinkedList<TeamInterface>();
+			this.teams  = new TeamList();
 		else
-			this.teams = teams;
+			this.teams = new TeamList(teams);
 		
 		if(pickFourTeams == null)
-			this.pickFourTeams = new LinkedList<TeamInterface>();
+			this.pickFourTeams = new TeamList();
 		else
-			this.pickFourTeams = pickFourTeams;
+			this.pickFourTeams = new TeamList(pickFourTeams);
 		
 		this.chosenWinner = chosenWinner;
 	}
@@ -71,15 +72,28 @@ public class Player implements PlayerInterface, Comparable<PlayerInterface>
 		}
 		return total;
 	}
+	
+	public int getPickFourPoints(int[] points)
+	{
+		int total = 0;
+		for(int id: pickFourTeams.getIds())
+			total += points[id];
+		return total;
+	}
+	
+	public int[] getPickFourIds()
+	{
+		return pickFourTeams.getIds();
+	}
+	
 	public boolean addPickFourTeam(TeamInterface t)
 	{
 		if(t == null)
 			throw new IllegalArgumentException();
 		if(pickFourTeams.size() > 4)
 			return false;
-		for(TeamInterface team: pickFourTeams)
-			if(team.getName().equals(t.getName()))
-				return false;
+		if(contains(pickFourTeams, t))
+			return false;
 		return pickFourTeams.add(t);
 	}
 	
@@ -90,20 +104,41 @@ public class Player implements PlayerInterface, Comparable<PlayerInterface>
 			throw new IllegalArgumentException();
 		if(teams.size() >= teamsPurchased)
 			return false;
-		for(TeamInterface team: teams)
-			if(team.getName().equals(t.getName()))
-				return false;
+		if(contains(teams, t))
+			return false;
 		return teams.add(t);
 	}
 	
+	/**
+	 * Checks for a team with the same name as the team passed. Teams that are in a bracket are
+	 * checked by id, which is the same as checking by name since names are unique in a bracket.
+	 */
+	private static boolean contains(TeamList list, TeamInterface t)
+	{
+		if(t.getId() >= 0)
+			return list.containsId(t);
+		for(TeamInterface team: list)
+			if(team.getName().equals(t.getName()))
+				return true;
+		return false;
+	}
+	
 	public List<TeamInterface> getPickFourTeams() 
 	{
 		return pickFourTeams;
 	}
 	
+	public void syncIds(int idGeneration)
+	{
+		teams.syncIds(idGeneration);
+		pickFourTeams.syncIds(idGeneration);
+	}
+	
 	public void setPickFourTeams(List<TeamInterface> pick4teams) {
-		if(pick4teams != null)
-			this.pickFourTeams = pick4teams;
+		if(pick4teams != null) {
+			changes += pickFourTeams.getChanges()+1;//Keeps the count going up when the list is replaced
+			this.pickFourTeams = new TeamList(pick4teams);
+		}
 	}
 
 	public List<TeamInterface> getTeams() 
@@ -127,6 +162,7 @@ public class Player implements PlayerInterface, Comparable<PlayerInterface>
 			//return false;
 		
 		chosenWinner = t;
+		changes++;
 		return true;
 	}
 	
@@ -150,6 +186,21 @@ public class Player implements PlayerInterface, Comparable<PlayerInterface>
 		return total;
 	}
 	
+	public int numTeamsAlive(long[] aliveMask)
+	{
+		return TeamMask.countBoth(teams.getMask(), aliveMask);
+	}
+	
+	public long[] getTeamMask()
+	{
+		return teams.getMask();
+	}
+	
+	public long[] getPickFourMask()
+	{
+		return pickFourTeams.getMask();
+	}
+	
 	public boolean hasPaid() {
 		return paid;
 	}
@@ -167,8 +218,14 @@ public class Player implements PlayerInterface, Comparable<PlayerInterface>
 	}
 	
 	public void setPredictedScore(int score) {
-		if(score >= 0)
+		if(score >= 0 && score != predictedScore) {
 			this.predictedScore = score;
+			changes++;
+		}
+	}
+	
+	public int getChangeCount() {
+		return changes+teams.getChanges()+pickFourTeams.getChanges();
 	}
 	
 	public double getBalance() {
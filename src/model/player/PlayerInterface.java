@@ -20,6 +20,22 @@ public interface PlayerInterface extends Comparable<PlayerInterface>
 	public boolean addPickFourTeam(TeamInterface t);
 
 	public int getPickFourPoints();
+	
+	/**
+	 * Adds up the points of the player's pick four teams from a table of points
+	 * 
+	 * @param points Pick four points of each team, indexed by team id
+	 * @return total The player's pick four points
+	 * @see model.bracket.Bracket#getPickFourPoints()
+	 */
+	public int getPickFourPoints(int[] points);
+	
+	/**
+	 * Returns the ids of the player's pick four teams. The array must not be modified.
+	 * 
+	 * @return ids The team ids of the player's picks
+	 */
+	public int[] getPickFourIds();
 
 	public boolean addChosenTeam(TeamInterface t);
 	
@@ -31,6 +47,43 @@ public interface PlayerInterface extends Comparable<PlayerInterface>
 	
 	public int numTeamsAlive();
 	
+	/**
+	 * Counts the player's teams that are in the alive mask of their bracket
+	 * 
+	 * @param aliveMask Team mask of the teams still in the tournament
+	 * @return numTeamsAlive The number of the player's teams that are still alive
+	 * @see model.bracket.Bracket#getAliveMask()
+	 */
+	public int numTeamsAlive(long[] aliveMask);
+	
+	/**
+	 * Returns a team mask of the ids of the teams the player owns. The array must not be modified.
+	 * The ids are those of the last call to syncIds.
+	 * 
+	 * @return teamMask Team mask of the player's teams
+	 * @see model.team.TeamMask
+	 */
+	public long[] getTeamMask();
+	
+	/**
+	 * Returns a team mask of the ids of the player's pick four teams. The array must not be modified.
+	 * The ids are those of the last call to syncIds.
+	 * 
+	 * @return pickFourMask Team mask of the player's pick four teams
+	 * @see model.team.TeamMask
+	 */
+	public long[] getPickFourMask();
+	
+	/**
+	 * Brings the player's team masks and ids up to date with the ids the bracket has given its
+	 * teams. The masks are only rebuilt when the bracket's id generation has changed since the last
+	 * call, so the masks and ids read afterwards are a field read until the bracket changes an id.
+	 * 
+	 * @param idGeneration The id generation of the bracket the teams are in
+	 * @see model.bracket.Bracket#getIdGeneration()
+	 */
+	public void syncIds(int idGeneration);
+	
 	public boolean hasPaid();
 
 	public void setPaid(boolean paid);
@@ -41,6 +94,15 @@ public interface PlayerInterface extends Comparable<PlayerInterface>
 	
 	public int getPredictedScore();
 	
+	/**
+	 * Returns a count that goes up whenever the player's teams, pick four teams, chosen winner or
+	 * predicted score change, so the contests only need to be worked out again for players whose
+	 * count has changed
+	 * 
+	 * @return changes The number of changes made to the player's contest entries
+	 */
+	public int getChangeCount();
+	
 	public double getBalance();
 	
 	public void setBalance(double balance);
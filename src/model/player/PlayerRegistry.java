@@ -0,0 +1,153 @@
+package model.player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The players of a game, kept in name order. Players are held in a tree keyed by their name, so
+ * adding or removing a player is O(log n), and in a hash index keyed by the lower case name, so
+ * finding a player ignores case and takes O(1).
+ *
+ * The list returned by getPlayers is a read only view in name order. It is built again only
+ * after the players change, so reading it is O(1) no matter how often it is asked for.
+ *
+ * Names are unique without regard to case. Players must be renamed through rename so that both
+ * indexes follow the new name.
+ *
+ * @author Clay Mackenthun
+ */
+public final class PlayerRegistry
+{
+	private final TreeMap<String,PlayerInterface> byName = new TreeMap<String,PlayerInterface>();
+	private final Map<String,PlayerInterface> byFoldedName = new HashMap<String,PlayerInterface>();
+	private List<PlayerInterface> view;//Players in name order, null when the players have changed since it was built
+
+	/**
+	 * Returns the key of a name in the case-folded index
+	 */
+	private static String fold(String name)
+	{
+		return name.trim().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Adds a player unless another player already has the same name, ignoring case
+	 *
+	 * @param player The player to add
+	 *
+	 * @return added True if the player was added
+	 *
+	 * @throws IllegalArgumentException if player is null
+	 */
+	public boolean add(PlayerInterface player)
+	{
+		if(player == null)
+			throw new IllegalArgumentException();
+		String folded = fold(player.getName());
+		if(byFoldedName.containsKey(folded))
+			return false;
+		byFoldedName.put(folded, player);
+		byName.put(player.getName(), player);
+		view = null;
+		return true;
+	}
+
+	/**
+	 * Removes the player with the given name, ignoring case
+	 *
+	 * @param name The name of the player
+	 *
+	 * @return player The player removed, null if there was no player with the name
+	 */
+	public PlayerInterface remove(String name)
+	{
+		if(name == null)
+			return null;
+		PlayerInterface player = byFoldedName.remove(fold(name));
+		if(player != null) {
+			byName.remove(player.getName());
+			view = null;
+		}
+		return player;
+	}
+
+	/**
+	 * Removes every player
+	 */
+	public void clear()
+	{
+		byName.clear();
+		byFoldedName.clear();
+		view = null;
+	}
+
+	/**
+	 * Renames a player. Does nothing if another player already has the new name, ignoring case.
+	 *
+	 * @param player A player in the registry
+	 * @param name The new name of the player
+	 *
+	 * @return renamed True if the player now has the new name
+	 *
+	 * @throws IllegalArgumentException if either parameter is null or the player is not in the registry
+	 */
+	public boolean rename(PlayerInterface player, String name)
+	{
+		if(player == null || name == null || byName.get(player.getName()) != player)
+			throw new IllegalArgumentException();
+		if(name.trim().length() == 0)
+			return false;
+		PlayerInterface other = byFoldedName.get(fold(name));
+		if(other != null && other != player)
+			return false;
+		byName.remove(player.getName());
+		byFoldedName.remove(fold(player.getName()));
+		player.setName(name);
+		byName.put(player.getName(), player);
+		byFoldedName.put(fold(player.getName()), player);
+		view = null;
+		return true;
+	}
+
+	/**
+	 * Finds a player by name, ignoring case and surrounding spaces
+	 *
+	 * @param name The name of the player
+	 *
+	 * @return player The player with the name, null if there is none
+	 */
+	public PlayerInterface find(String name)
+	{
+		if(name == null)
+			return null;
+		return byFoldedName.get(fold(name));
+	}
+
+	/**
+	 * Returns the players in name order. The list is a read only view that is replaced, not
+	 * changed, when players are added or removed.
+	 *
+	 * @return players Every player in name order
+	 */
+	public List<PlayerInterface> getPlayers()
+	{
+		if(view == null)
+			view = Collections.unmodifiableList(new ArrayList<PlayerInterface>(byName.values()));
+		return view;
+	}
+
+	public int size()
+	{
+		return byName.size();
+	}
+
+	public boolean isEmpty()
+	{
+		return byName.isEmpty();
+	}
+}
@@ -0,0 +1,56 @@
+package model.player;
+
+/**
+ * One player's place on a leaderboard. Players with the same points share a rank and the next
+ * rank skips the places they took up (1, 2, 2, 4).
+ *
+ * @author Clay Mackenthun
+ */
+public final class Standing
+{
+	private final PlayerInterface player;
+	private final int rank;
+	private final int points;
+	private final int potential;
+
+	/**
+	 * @param player The player
+	 * @param rank The player's rank, starting at 1
+	 * @param points What the leaderboard ranks by
+	 * @param potential The most points the player could end with, or 0 if the leaderboard does not break ties with it
+	 */
+	public Standing(PlayerInterface player, int rank, int points, int potential)
+	{
+		if(player == null || rank < 1)
+			throw new IllegalArgumentException();
+		this.player = player;
+		this.rank = rank;
+		this.points = points;
+		this.potential = potential;
+	}
+
+	public PlayerInterface getPlayer()
+	{
+		return player;
+	}
+
+	public int getRank()
+	{
+		return rank;
+	}
+
+	public int getPoints()
+	{
+		return points;
+	}
+
+	public int getPotential()
+	{
+		return potential;
+	}
+
+	public String toString()
+	{
+		return rank+". "+player+" "+points+"/"+potential;
+	}
+}
@@ -0,0 +1,161 @@
+package model.player;
+
+import model.team.TeamInterface;
+import model.team.TeamMask;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * A list of teams that also keeps a team mask of the ids of the teams in it. Every change to the
+ * list, whether through the list itself, its iterators or a sublist, drops the mask and the next
+ * call to getMask builds it again. A bracket can also change the ids of the teams in the list, so
+ * the mask is dropped by syncIds once the id generation of the bracket differs from the one it was
+ * synced to. Reading the mask is then a field read, and it matches the list as long as syncIds has
+ * been called since the bracket last changed an id.
+ *
+ * Teams that have not been given an id by a bracket are kept in the list but are not in the mask.
+ *
+ * @author Clay Mackenthun
+ *
+ * @see TeamMask
+ */
+class TeamList extends AbstractList<TeamInterface>
+{
+	private final ArrayList<TeamInterface> teams;
+	private long[] mask;//Null when the list has changed since the mask was built
+	private int[] ids;//Ids of the teams in the list in order, built with the mask
+	private int idGeneration = -1;//Id generation of the bracket the list was last synced to
+	private int changes;//Number of times the list has been changed
+
+	TeamList()
+	{
+		teams = new ArrayList<TeamInterface>();
+	}
+
+	TeamList(Collection<? extends TeamInterface> teams)
+	{
+		this.teams = new ArrayList<TeamInterface>(teams);
+	}
+
+	/**
+	 * Returns the team mask of the teams in the list. The array is shared with the list and must
+	 * not be modified.
+	 *
+	 * @return mask Team mask of the ids of the teams in the list
+	 */
+	long[] getMask()
+	{
+		if(mask == null) {
+			int maxId = -1;
+			for(TeamInterface team : teams)
+				if(team != null)
+					maxId = Math.max(maxId, team.getId());
+			long[] built = TeamMask.create(maxId+1);
+			int numIds = 0;
+			for(TeamInterface team : teams)
+				if(team != null && team.getId() >= 0) {
+					TeamMask.set(built, team.getId());
+					numIds++;
+				}
+			ids = new int[numIds];
+			numIds = 0;
+			for(TeamInterface team : teams)
+				if(team != null && team.getId() >= 0)
+					ids[numIds++] = team.getId();
+			mask = built;
+		}
+		return mask;
+	}
+
+	/**
+	 * Drops the mask if the bracket has changed a team id since the list was last synced
+	 *
+	 * @param idGeneration The id generation of the bracket the teams are in
+	 * @see model.bracket.Bracket#getIdGeneration()
+	 */
+	void syncIds(int idGeneration)
+	{
+		if(this.idGeneration != idGeneration) {
+			this.idGeneration = idGeneration;
+			mask = null;
+		}
+	}
+	
+	/**
+	 * Returns the ids of the teams in the list, in list order. The array is shared with the list
+	 * and must not be modified.
+	 *
+	 * @return ids The ids of the teams in the list that are in a bracket
+	 */
+	int[] getIds()
+	{
+		getMask();
+		return ids;
+	}
+
+	/**
+	 * @return contains True if a team with the same id as the team passed is in the list
+	 */
+	boolean containsId(TeamInterface team)
+	{
+		long[] mask = getMask();
+		int id = team.getId();
+		return id >= 0 && (id >>> 6) < mask.length && TeamMask.get(mask, id);
+	}
+
+	/**
+	 * @return changes The number of times the list has been changed since it was made
+	 */
+	int getChanges()
+	{
+		return changes;
+	}
+
+	@Override
+	public TeamInterface get(int index)
+	{
+		return teams.get(index);
+	}
+
+	@Override
+	public int size()
+	{
+		return teams.size();
+	}
+
+	@Override
+	public TeamInterface set(int index, TeamInterface team)
+	{
+		mask = null;
+		changes++;
+		return teams.set(index, team);
+	}
+
+	@Override
+	public void add(int index, TeamInterface team)
+	{
+		mask = null;
+		modCount++;
+		changes++;
+		teams.add(index, team);
+	}
+
+	@Override
+	public TeamInterface remove(int index)
+	{
+		mask = null;
+		modCount++;
+		changes++;
+		return teams.remove(index);
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex)
+	{
+		mask = null;
+		modCount++;
+		changes++;
+		teams.subList(fromIndex, toIndex).clear();
+	}
+}
@@ -0,0 +1,138 @@
+package model.prizes;
+
+import model.bracket.Bracket;
+import model.player.OwnerIndex;
+import model.player.PlayerInterface;
+import model.team.TeamInterface;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What contest rules work out their winners from: the bracket, the players and the
+ * owners of each team, for a single pass of ContestManager.
+ *
+ * @see ContestRule
+ */
+public final class ContestContext {
+
+    private final Bracket bracket;
+    private final OwnerIndex owners;
+    private final List<PlayerInterface> players;
+    private final Map<PlayerInterface, Integer> order;// Position of each player in players
+    private final TeamInterface otLoser;
+
+    ContestContext(Bracket bracket, OwnerIndex owners, List<PlayerInterface> players, TeamInterface otLoser) {
+        this.bracket = bracket;
+        this.owners = owners;
+        this.players = players;
+        this.otLoser = otLoser;
+        order = new IdentityHashMap<>(2 * players.size());
+        for (PlayerInterface player : players) {
+            order.put(player, order.size());
+        }
+    }
+
+    public Bracket getBracket() {
+        return bracket;
+    }
+
+    /**
+     * @return owners The owners, pickers and choosers of each team. Must not be modified
+     */
+    public OwnerIndex getOwners() {
+        return owners;
+    }
+
+    /**
+     * @return players Every player, in the order winners are listed. Must not be modified
+     */
+    public List<PlayerInterface> getPlayers() {
+        return players;
+    }
+
+    public TeamInterface getOTLoser() {
+        return otLoser;
+    }
+
+    /**
+     * Gives a contest to the players that own the teams passed, in the order
+     * of the players and then of each player's teams
+     *
+     * @param contest The contest to add the winners to
+     * @param teams The teams that won the contest
+     * @param firstOwnerOnly True if each team only counts for the first
+     * player that owns it
+     */
+    public void award(Contest contest, List<TeamInterface> teams, boolean firstOwnerOnly) {
+        final List<PlayerInterface> winners = new ArrayList<>();
+        final List<TeamInterface> won = new ArrayList<>();
+        for (TeamInterface team : teams) {
+            List<PlayerInterface> teamOwners = inOrder(owners.getOwners(team));
+            for (PlayerInterface owner : teamOwners) {
+                winners.add(owner);
+                won.add(team);
+                if (firstOwnerOnly) {
+                    break;
+                }
+            }
+        }
+        Integer[] sorted = new Integer[winners.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                int byPlayer = order.get(winners.get(a)) - order.get(winners.get(b));
+                if (byPlayer != 0) {
+                    return byPlayer;
+                }
+                List<TeamInterface> teams = winners.get(a).getTeams();
+                return teams.indexOf(won.get(a)) - teams.indexOf(won.get(b));
+            }
+        });
+        for (int i : sorted) {
+            contest.getPlayers().add(winners.get(i));
+            contest.getTeams().add(won.get(i));
+        }
+    }
+
+    /**
+     * Returns the players passed that are among the players, in player order
+     *
+     * @param players Players in any order, such as the owners of a team
+     * @return sorted The players in the order of getPlayers
+     */
+    public List<PlayerInterface> inOrder(List<PlayerInterface> players) {
+        List<PlayerInterface> sorted = new ArrayList<>(players.size());
+        for (PlayerInterface player : players) {
+            if (order.containsKey(player)) {
+                sorted.add(player);
+            }
+        }
+        Collections.sort(sorted, new Comparator<PlayerInterface>() {
+            @Override
+            public int compare(PlayerInterface a, PlayerInterface b) {
+                return order.get(a) - order.get(b);
+            }
+        });
+        return sorted;
+    }
+
+    /**
+     * @return owned True if any of the players owns the team
+     */
+    public boolean isOwned(TeamInterface team) {
+        for (PlayerInterface owner : owners.getOwners(team)) {
+            if (order.containsKey(owner)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
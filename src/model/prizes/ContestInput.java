@@ -0,0 +1,25 @@
+package model.prizes;
+
+/**
+ * The parts of the tournament the winners of a contest can depend on. Every contest also
+ * depends on the players, their teams, picks and predictions, and the teams in the bracket,
+ * so a change to any of those always has every contest worked out again.
+ *
+ * @see ContestRule#getInputs()
+ */
+public enum ContestInput {
+
+	/** A game was completed or reverted in any round, so a team's wins or status changed */
+	GAME_RESULT,
+	/** A game of a team seeded UNDERDOG_SEED or worse was completed or reverted */
+	UNDERDOG_RESULT,
+	/** A first round game was decided, undone or had a score changed, so its margin may have changed */
+	FIRST_ROUND_MARGIN,
+	/** The team in the championship slot or the total score of the championship game changed */
+	CHAMPIONSHIP,
+	/** The team that lost the first overtime game was set */
+	OVERTIME_LOSER;
+
+	/** The best seed that counts as an underdog */
+	public static final int UNDERDOG_SEED = 9;
+}
@@ -1,27 +1,61 @@
 package model.prizes;
 
+import model.player.OwnerIndex;
 import model.player.PlayerInterface;
 import model.team.TeamInterface;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import model.bracket.Bracket;
-
+import model.bracket.BracketEvent;
+import model.bracket.BracketListener;
+import model.bracket.GameResult;
+
+/**
+ * Decides the winners of each contest and the balance of each player.
+ *
+ * The winners of each contest are decided by a ContestRule, which declares
+ * the ContestInputs its winners depend on. There is a contest for each prize
+ * of the rules that have been added, so a rule for a side contest brings its
+ * own prize and the contest paying it. A rule is only worked out again
+ * when one of its inputs has changed. The manager listens to the bracket and
+ * records the inputs a completed, reverted or rescored game changes, and
+ * update works out only the rules that depend on them, in a single pass over
+ * the players. Every rule is stale when the players, their entries or the
+ * teams in the bracket have changed. Most rules look up the players of the
+ * teams that won in an OwnerIndex, rather than checking every team of every
+ * player.
+ * Balances are always worked out again, which only takes one pass over the
+ * players and the winners.
+ *
+ * With verifying turned on, update also works out every contest from scratch
+ * by checking every team of every player, and checks that it gets the same
+ * winners.
+ */
 public class ContestManager {
 
-    private Contest[] contests;
+    private final Map<Prize, Contest> contests = new LinkedHashMap<>();// Contest of each prize of the rules, standard prizes first
+    private final Map<ContestRule, Contest[]> ruleContests = new IdentityHashMap<>();// Contests of each rule's prizes, in the order of its prizes
     private Bracket bracket;
-
-    private final double CHOSEN_WINNER_PRIZE = 20;
-    private final double CINDERELLA_TEAM_PRIZE = 10;
-    private final double FIRST_OVERTIME_LOSS_PRIZE = 10;
-    private final double FIRST_ROUND_BLOWOUT_LOSS_PRIZE = 20;
-    private final double WON_FIRST_GAME_PRIZE = 5;
-    private final double FINAL_FOUR_TEAM_PRIZE = 20;
-    private final double CHAMPION_TEAM_PRIZE = 80;
-    private final double PICK_FOUR_CHAMPION_PRIZE = 30;
-    private final double PICK_FOUR_RUNNERUP_PRIZE = 10;
-    private final boolean SPLIT_PRIZE = true;
+    private final OwnerIndex owners;// Players of each team, kept up to date by the database
+    private final List<ContestRule> rules = new ArrayList<>();
+    private final Set<ContestInput> changed = EnumSet.noneOf(ContestInput.class);// Inputs that changed since the last update
+    private boolean allStale = true;// Every rule has to be worked out again
+    private TeamInterface seenChampion;// Champion at the last update
+    private PlayerInterface[] seenPlayers = new PlayerInterface[0];// Players at the last update
+    private int[] seenChanges = new int[0];// Change count of each player at the last update
+    private int seenIdGeneration = -1;// Team id generation at the last update
+    private int seenChampionshipScore;// Total score of the championship game at the last update
+    private boolean verifying;
 
     private TeamInterface championTeam;
     private TeamInterface otLoser;
@@ -29,70 +63,203 @@ public class ContestManager {
     private List<TeamInterface> firstRoundBlowout;
 
     private int mostCinderellaWins = 0;
-    private int topPickFourScore = 0;
-    private int secondPickFourScore = 0;
-    private final int MIN_CINDERELLA_SEED = 9;
+    private final int MIN_CINDERELLA_SEED = ContestInput.UNDERDOG_SEED;
+    private static final int FINAL_FOUR_WINS = 4;
 
-    public ContestManager(Bracket b) {
+    public ContestManager(Bracket b, OwnerIndex owners) {
         bracket = b;
+        this.owners = owners;
+        for (PrizeType prizeType : PrizeType.values()) {
+            contests.put(prizeType, new Contest(prizeType.getDefaultPrizeMoney(), prizeType.splitPrize()));
+        }
+        rules.addAll(ContestRules.createDefaults());
+        linkContests();
+        if (bracket != null) {
+            bracket.addBracketListener(new BracketListener() {
+                @Override
+                public void bracketChanged(BracketEvent event) {
+                    gameChanged(event);
+                }
+            }, BracketListener.Dispatch.SYNCHRONOUS);
+        }
+    }
+
+    /**
+     * Makes a contest for every standard prize, indexed by prize number
+     */
+    private static Contest[] createStandardContests() {
+        Contest[] contests = new Contest[PrizeType.getNumPrizes()];
+        for (PrizeType prizeType : PrizeType.values()) {
+            contests[prizeType.getPrizeNum()] = new Contest(prizeType.getDefaultPrizeMoney(), prizeType.splitPrize());
+        }
+        return contests;
+    }
+
+    /**
+     * Adds a rule, which replaces the rules of any of its prizes. A prize no
+     * rule decides any more loses its contest, and a new prize gets a contest
+     * paying its default prize money. Every rule is worked out again at the
+     * next update.
+     *
+     * @param rule The rule to add
+     * @throws IllegalArgumentException if rule is null, has no prizes, or has
+     * a new prize with the same name as another prize
+     */
+    public void addRule(ContestRule rule) {
+        if (rule == null || rule.getPrizes().length == 0) {
+            throw new IllegalArgumentException();
+        }
+        List<Prize> prizes = Arrays.asList(rule.getPrizes());
+        for (Prize prize : prizes) {
+            if (prize == null) {
+                throw new IllegalArgumentException();
+            }
+            Prize named = findPrize(prize.getName());
+            if (named != null && !named.equals(prize)) {
+                throw new IllegalArgumentException();
+            }
+        }
+        Iterator<ContestRule> itr = rules.iterator();
+        while (itr.hasNext()) {
+            if (!Collections.disjoint(prizes, Arrays.asList(itr.next().getPrizes()))) {
+                itr.remove();
+            }
+        }
+        rules.add(rule);
+        linkContests();
+        allStale = true;
+    }
+
+    /**
+     * Drops the contests of prizes no rule decides, makes the contests of new
+     * prizes and hands each rule the contests of its prizes
+     */
+    private void linkContests() {
+        Set<Prize> decided = new HashSet<>();
+        for (ContestRule rule : rules) {
+            decided.addAll(Arrays.asList(rule.getPrizes()));
+        }
+        contests.keySet().retainAll(decided);
+        ruleContests.clear();
+        for (ContestRule rule : rules) {
+            Prize[] prizes = rule.getPrizes();
+            Contest[] own = new Contest[prizes.length];
+            for (int i = 0; i < prizes.length; i++) {
+                own[i] = contests.get(prizes[i]);
+                if (own[i] == null) {
+                    own[i] = new Contest(prizes[i].getDefaultPrizeMoney(), prizes[i].splitPrize());
+                    contests.put(prizes[i], own[i]);
+                }
+            }
+            ruleContests.put(rule, own);
+        }
+    }
 
-        contests = new Contest[PrizeType.getNumPrizes()];
-
-        contests[PrizeType.CHOSEN_WINNER.getPrizeNum()]
-                = new Contest(CHOSEN_WINNER_PRIZE,SPLIT_PRIZE);
-        contests[PrizeType.CINDERELLA_TEAM.getPrizeNum()]
-                = new Contest(CINDERELLA_TEAM_PRIZE,SPLIT_PRIZE);
-        contests[PrizeType.FIRST_OVERTIME_LOSS.getPrizeNum()]
-                = new Contest(FIRST_OVERTIME_LOSS_PRIZE,!SPLIT_PRIZE);
-        contests[PrizeType.FIRST_ROUND_BLOWOUT.getPrizeNum()]
-                = new Contest(FIRST_ROUND_BLOWOUT_LOSS_PRIZE,SPLIT_PRIZE);
-        contests[PrizeType.WON_FIRST_GAME.getPrizeNum()]
-                = new Contest(WON_FIRST_GAME_PRIZE,!SPLIT_PRIZE);
-        contests[PrizeType.FINAL_FOUR_TEAM.getPrizeNum()]
-                = new Contest(FINAL_FOUR_TEAM_PRIZE,!SPLIT_PRIZE);
-        contests[PrizeType.CHAMPION_TEAM.getPrizeNum()]
-                = new Contest(CHAMPION_TEAM_PRIZE,!SPLIT_PRIZE);
-        contests[PrizeType.PICK_FOUR_CHAMPION.getPrizeNum()]
-                = new Contest(PICK_FOUR_CHAMPION_PRIZE,SPLIT_PRIZE);
-        contests[PrizeType.PICK_FOUR_RUNNERUP.getPrizeNum()]
-                = new Contest(PICK_FOUR_RUNNERUP_PRIZE,SPLIT_PRIZE);
+    /**
+     * @return prizes The prize of every contest, the standard prizes first
+     * and then those of added rules in the order they were added
+     */
+    public Prize[] getPrizes() {
+        return contests.keySet().toArray(new Prize[contests.size()]);
+    }
+
+    /**
+     * @return prize The prize of a contest with the name passed, or null if
+     * there is none
+     */
+    public Prize findPrize(String name) {
+        for (Prize prize : contests.keySet()) {
+            if (prize.getName().equals(name)) {
+                return prize;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return rules The rules deciding the contests. Must not be modified
+     */
+    public List<ContestRule> getRules() {
+        return Collections.unmodifiableList(rules);
+    }
+
+    /**
+     * Records the inputs that the game of an event changes
+     */
+    private void gameChanged(BracketEvent event) {
+        BracketEvent.Type type = event.getType();
+        if (type != BracketEvent.Type.GAME_COMPLETED && type != BracketEvent.Type.GAME_REVERTED
+                && type != BracketEvent.Type.SCORE_CHANGED) {
+            return;
+        }
+        if (event.getRound() == 1) {
+            changed.add(ContestInput.FIRST_ROUND_MARGIN);
+        }
+        if (type == BracketEvent.Type.SCORE_CHANGED) {
+            return;//Nobody's wins changed
+        }
+        //A team placed ahead of an undecided game can win later games first, so
+        //any game can be a team's first or fourth win
+        changed.add(ContestInput.GAME_RESULT);
+        if (event.getTeam().getSeed() >= ContestInput.UNDERDOG_SEED) {
+            changed.add(ContestInput.UNDERDOG_RESULT);
+        }
     }
 
     public void setOTLoserTeam(TeamInterface loser) {
         otLoser = loser;
+        changed.add(ContestInput.OVERTIME_LOSER);
+    }
+
+    /**
+     * Turns checking every update against working out all of the contests
+     * from scratch on or off
+     *
+     * @param verifying True to check each update
+     */
+    public void setVerifying(boolean verifying) {
+        this.verifying = verifying;
+    }
+
+    public boolean isVerifying() {
+        return verifying;
     }
 
     public TeamInterface getOTLoserTeam() {
         return otLoser;
     }
 
-    public boolean setPrizeMoney(PrizeType prizeType, double prizeMoney) {
-        if (prizeType == null) {
+    public boolean setPrizeMoney(Prize prize, double prizeMoney) {
+        Contest contest = contests.get(prize);
+        if (contest == null) {
             return false;
         }
-        contests[prizeType.getPrizeNum()].setPrizeMoney(prizeMoney);
+        contest.setPrizeMoney(prizeMoney);
         return true;
     }
 
-    public double getPrizeMoney(PrizeType prizeType) {
-        if (prizeType == null) {
+    public double getPrizeMoney(Prize prize) {
+        Contest contest = contests.get(prize);
+        if (contest == null) {
             return 0;
         }
-        return contests[prizeType.getPrizeNum()].getPrizeMoney();
+        return contest.getPrizeMoney();
     }
 
-    public List<PlayerInterface> getWinningPlayers(PrizeType prizeType) {
-        if (prizeType == null) {
+    public List<PlayerInterface> getWinningPlayers(Prize prize) {
+        Contest contest = contests.get(prize);
+        if (contest == null) {
             return null;
         }
-        return contests[prizeType.getPrizeNum()].getPlayers();
+        return contest.getPlayers();
     }
 
-    public List<TeamInterface> getWinningTeams(PrizeType prizeType) {
-        if (prizeType == null) {
+    public List<TeamInterface> getWinningTeams(Prize prize) {
+        Contest contest = contests.get(prize);
+        if (contest == null) {
             return null;
         }
-        return contests[prizeType.getPrizeNum()].getTeams();
+        return contest.getTeams();
     }
 
     //Check if first round is done (for some) and if all scores are entered (others) save time and don't declare winners early
@@ -101,69 +268,163 @@ public class ContestManager {
             return;
         }
 
-        for (Contest contest : contests) {
-            contest.setPlayers(new LinkedList<>());
-            contest.setTeams(new LinkedList<>());
+        if (playersChanged(players) || seenIdGeneration != bracket.getIdGeneration()) {
+            allStale = true;
+            seenIdGeneration = bracket.getIdGeneration();
+        }
+        //A team can be placed in the championship slot ahead of its games being decided, so the
+        //champion and the championship scores are checked instead of waiting for a result
+        TeamInterface champion = bracket.getChampion();
+        int championshipScore = 0;
+        if (champion != null) {
+            GameResult championship = bracket.getGame(champion, bracket.getNumRounds());
+            championshipScore = championship.getScore() + championship.getOpponentScore();
+        }
+        if (champion != seenChampion || championshipScore != seenChampionshipScore) {
+            changed.add(ContestInput.CHAMPIONSHIP);
+            seenChampion = champion;
+            seenChampionshipScore = championshipScore;
         }
+        evaluate(players);
+        changed.clear();
+        allStale = false;
+
+        if (verifying) {
+            verify(players);
+        }
+        updateBalances(pricing, players);
+    }
 
+    /**
+     * Checks whether any player was added, removed or had their entries
+     * changed since the last update, and remembers the players as they are now
+     */
+    private boolean playersChanged(List<PlayerInterface> players) {
+        boolean changed = players.size() != seenPlayers.length;
+        if (changed) {
+            seenPlayers = new PlayerInterface[players.size()];
+            seenChanges = new int[players.size()];
+        }
+        int i = 0;
+        for (PlayerInterface player : players) {
+            if (seenPlayers[i] != player || seenChanges[i] != player.getChangeCount()) {
+                changed = true;
+                seenPlayers[i] = player;
+                seenChanges[i] = player.getChangeCount();
+            }
+            i++;
+        }
+        return changed;
+    }
+
+    /**
+     * Works out the stale rules. Each rule is started, then the rules that
+     * check players are given every player in one pass, then each rule is
+     * finished.
+     *
+     * @param players Every player
+     */
+    private void evaluate(List<PlayerInterface> players) {
+        ContestContext context = new ContestContext(bracket, owners, players, otLoser);
+        List<ContestRule> due = new ArrayList<>();
+        List<ContestRule> checking = new ArrayList<>();
+        for (ContestRule rule : rules) {
+            if (!allStale && Collections.disjoint(rule.getInputs(), changed)) {
+                continue;
+            }
+            for (Contest contest : ruleContests.get(rule)) {
+                contest.setPlayers(new LinkedList<>());
+                contest.setTeams(new LinkedList<>());
+            }
+            due.add(rule);
+            if (rule.start(context, ruleContests.get(rule))) {
+                checking.add(rule);
+            }
+        }
+        if (!checking.isEmpty()) {
+            for (PlayerInterface player : players) {
+                for (ContestRule rule : checking) {
+                    rule.check(context, ruleContests.get(rule), player);
+                }
+            }
+        }
+        for (ContestRule rule : due) {
+            rule.finish(context, ruleContests.get(rule));
+        }
+    }
+
+    /**
+     * Works out the winners of every contest the way they are defined, by
+     * checking every team of every player. Used to check the contests
+     * worked out by the standard rules. Pick four is already a check of every
+     * player, so its rule is used as it is.
+     *
+     * @param contests The standard contests to fill in, indexed by prize number
+     * @param players Every player
+     */
+    private void recompute(Contest[] contests, List<PlayerInterface> players) {
         finalFourTeams = new LinkedList<>();
         Iterator<TeamInterface> itr = bracket.getTeams().iterator();
         while (itr.hasNext()) {
             TeamInterface temp = itr.next();
-            if (temp.getWins() >= 4) {
+            if (temp.getWins() >= FINAL_FOUR_WINS) {
                 finalFourTeams.add(temp);
             }
         }
         championTeam = bracket.getChampion();
-        firstRoundBlowout = new LinkedList<>();
-        getFirstRoundBlowout();
+        scanFirstRoundBlowout();
 
-        topPickFourScore = 0;
-        secondPickFourScore = 0;
+        mostCinderellaWins = 0;
         for (PlayerInterface player : players) {
-            if (!player.hasPaid()) {
-                player.setBalance(0 - pricing.get(player.getNumSpots()));
-            } else {
-                player.setBalance(0);
-            }
-
             for (TeamInterface ownedTeam : player.getTeams()) {
-                checkFinalFourTeam(player, ownedTeam);
+                checkFinalFourTeam(contests, player, ownedTeam);
 
-                checkChampionTeam(player, ownedTeam);
+                checkChampionTeam(contests, player, ownedTeam);
 
-                checkOTLoser(player, ownedTeam);
+                checkOTLoser(contests, player, ownedTeam);
 
-                checkFirstRoundBlowout(player, ownedTeam);
+                checkFirstRoundBlowout(contests, player, ownedTeam);
 
-                checkWonFirstGame(player, ownedTeam);
+                checkWonFirstGame(contests, player, ownedTeam);
 
-                checkCinderellaTeam(player, ownedTeam);
+                checkCinderellaTeam(contests, player, ownedTeam);
             }
-            checkChosenWinner(player);
-
-            checkPickFourContest(player);
-
+            checkChosenWinner(contests, player);
         }
 
         if (contests[PrizeType.CHOSEN_WINNER.getPrizeNum()].getPlayers().size() > 1) { //Tiebreaker
-            chosenWinnerTiebreaker();
-        }
-        List<PlayerInterface> p4Winners = contests[PrizeType.PICK_FOUR_CHAMPION.getPrizeNum()].getPlayers();
-        if (!p4Winners.isEmpty() && p4Winners.size() == players.size()
-                && p4Winners.get(0).getPickFourPoints() == 0) {
-            contests[PrizeType.PICK_FOUR_CHAMPION.getPrizeNum()].setPlayers(new LinkedList<>());
+            ContestRules.chosenWinnerTiebreaker(bracket, championTeam, contests[PrizeType.CHOSEN_WINNER.getPrizeNum()]);
         }
-        List<PlayerInterface> p4RunnerUps = contests[PrizeType.PICK_FOUR_RUNNERUP.getPrizeNum()].getPlayers();
-        if (!p4RunnerUps.isEmpty() && p4RunnerUps.size()+p4Winners.size() == players.size()
-                && p4RunnerUps.get(0).getPickFourPoints() == 0) {
-            contests[PrizeType.PICK_FOUR_RUNNERUP.getPrizeNum()].setPlayers(new LinkedList<>());
+        ContestContext context = new ContestContext(bracket, owners, players, otLoser);
+        ContestRule pickFour = new ContestRules.PickFour();
+        Contest[] pickFourContests = {contests[PrizeType.PICK_FOUR_CHAMPION.getPrizeNum()],
+            contests[PrizeType.PICK_FOUR_RUNNERUP.getPrizeNum()]};
+        pickFour.start(context, pickFourContests);
+        for (PlayerInterface player : players) {
+            pickFour.check(context, pickFourContests, player);
         }
+        pickFour.finish(context, pickFourContests);
+    }
 
-        updateBalances();
+    /**
+     * Works out every standard contest from scratch and checks that each has
+     * the same winners as after the update
+     *
+     * @throws IllegalStateException if a contest has different winners
+     */
+    private void verify(List<PlayerInterface> players) {
+        Contest[] expected = createStandardContests();
+        recompute(expected, players);
+        for (PrizeType prizeType : PrizeType.values()) {
+            Contest contest = contests.get(prizeType);
+            Contest full = expected[prizeType.getPrizeNum()];
+            if (contest != null && !contest.getPlayers().equals(full.getPlayers()) || !contest.getTeams().equals(full.getTeams())) {
+                throw new IllegalStateException(prizeType + " is " + contest + " but should be " + full);
+            }
+        }
     }
 
-    private void checkChosenWinner(PlayerInterface player) {
+    private void checkChosenWinner(Contest[] contests, PlayerInterface player) {
         if (championTeam != null
                 && player.getChosenWinner() != null
                 && player.getChosenWinner().equals(championTeam)) {
@@ -173,7 +434,7 @@ public class ContestManager {
         }
     }
 
-    private void checkWonFirstGame(PlayerInterface player, TeamInterface team) {
+    private void checkWonFirstGame(Contest[] contests, PlayerInterface player, TeamInterface team) {
         if (team.getWins() > 0) {
             Contest contest = contests[PrizeType.WON_FIRST_GAME.getPrizeNum()];
             contest.getTeams().add(team);
@@ -181,7 +442,7 @@ public class ContestManager {
         }
     }
 
-    private void checkChampionTeam(PlayerInterface player, TeamInterface team) {
+    private void checkChampionTeam(Contest[] contests, PlayerInterface player, TeamInterface team) {
         if (championTeam != null && team.equals(championTeam)) {
             Contest contest = contests[PrizeType.CHAMPION_TEAM.getPrizeNum()];
             contest.getTeams().add(team);
@@ -189,7 +450,7 @@ public class ContestManager {
         }
     }
 
-    private void checkOTLoser(PlayerInterface player, TeamInterface team) {
+    private void checkOTLoser(Contest[] contests, PlayerInterface player, TeamInterface team) {
         if (otLoser != null && otLoser.equals(team)) {
             Contest contest = contests[PrizeType.FIRST_OVERTIME_LOSS.getPrizeNum()];
             contest.getTeams().add(team);
@@ -197,7 +458,7 @@ public class ContestManager {
         }
     }
 
-    private void checkFirstRoundBlowout(PlayerInterface player, TeamInterface team) {
+    private void checkFirstRoundBlowout(Contest[] contests, PlayerInterface player, TeamInterface team) {
         for (TeamInterface blowout : firstRoundBlowout) {
             if (blowout.equals(team)) {
                 Contest contest = contests[PrizeType.FIRST_ROUND_BLOWOUT.getPrizeNum()];
@@ -207,7 +468,7 @@ public class ContestManager {
         }
     }
 
-    private void checkFinalFourTeam(PlayerInterface player, TeamInterface team) {
+    private void checkFinalFourTeam(Contest[] contests, PlayerInterface player, TeamInterface team) {
         Iterator<TeamInterface> ffItr = finalFourTeams.iterator();
         Contest contest = contests[PrizeType.FINAL_FOUR_TEAM.getPrizeNum()];
         while (ffItr.hasNext()) {
@@ -220,7 +481,7 @@ public class ContestManager {
         }
     }
 
-    private void checkCinderellaTeam(PlayerInterface player, TeamInterface team) {
+    private void checkCinderellaTeam(Contest[] contests, PlayerInterface player, TeamInterface team) {
         if (team.getSeed() < MIN_CINDERELLA_SEED) {
             return;
         }
@@ -240,93 +501,47 @@ public class ContestManager {
         }
     }
 
-    private void checkPickFourContest(PlayerInterface player) {
-        int score = player.getPickFourPoints();
-        if (score > topPickFourScore) {
-            Contest top = contests[PrizeType.PICK_FOUR_CHAMPION.getPrizeNum()];
-            Contest second = contests[PrizeType.PICK_FOUR_RUNNERUP.getPrizeNum()];
-            second.setPlayers(top.getPlayers());
-            top.setPlayers(new LinkedList<>());
-            top.getPlayers().add(player);
-            secondPickFourScore = topPickFourScore;
-            topPickFourScore = score;
-        } else if (score == topPickFourScore) {
-            Contest top = contests[PrizeType.PICK_FOUR_CHAMPION.getPrizeNum()];
-            top.getPlayers().add(player);
-        } else if (score > secondPickFourScore) {
-            Contest second = contests[PrizeType.PICK_FOUR_RUNNERUP.getPrizeNum()];
-            second.setPlayers(new LinkedList<>());
-            second.getPlayers().add(player);
-            secondPickFourScore = score;
-        } else if (score == secondPickFourScore) {
-            Contest second = contests[PrizeType.PICK_FOUR_RUNNERUP.getPrizeNum()];
-            second.getPlayers().add(player);
-        }
-    }
-
-    public void getFirstRoundBlowout() {
+    /**
+     * Finds the teams that lost a first round game by the largest margin by
+     * looking at the first game of every team that won one
+     */
+    private void scanFirstRoundBlowout() {
+        firstRoundBlowout = new LinkedList<>();
         if (!bracket.initialized()) {
             return;
         }
-
-        List<TeamInterface> teams = bracket.getTeams();
-        firstRoundBlowout = new LinkedList<>();
-        TeamInterface opponent;
         int maxDifference = 0;
-        for (TeamInterface team : teams) {
-            if (team.getWins() > 0) {
-                opponent = bracket.getOpponents(team).get(0);
-
-                int teamScore = bracket.getScores(team, 1).get(0);
-                int opponentScore = bracket.getScores(opponent, 1).get(0);
-
-                int difference = teamScore - opponentScore;
+        for (TeamInterface team : bracket.getTeams()) {
+            GameResult game = bracket.getGame(team, 1);
+            if (team.getWins() > 0 && game.getWinner() == team) {
+                int difference = game.getScore() - game.getOpponentScore();
                 if (difference > maxDifference) {
                     maxDifference = difference;
                     firstRoundBlowout = new LinkedList<>();
-                    firstRoundBlowout.add(opponent);
+                    firstRoundBlowout.add(game.getOpponent());
                 } else if (difference == maxDifference) {
-                    firstRoundBlowout.add(opponent);
+                    firstRoundBlowout.add(game.getOpponent());
                 }
             }
         }
     }
 
-    private void chosenWinnerTiebreaker() {
-        int totalScore;
-        List<Integer> scores = bracket.getScores(championTeam);//Champions championship game score
-        totalScore = scores.get(scores.size() - 1);
-        List<TeamInterface> opps = bracket.getOpponents(championTeam);//Opponent's championship game score
-        scores = bracket.getScores(opps.get(opps.size() - 1));
-        totalScore += scores.get(scores.size() - 1);
-        int smallestDif = Integer.MAX_VALUE;
-        for (PlayerInterface player : contests[PrizeType.CHOSEN_WINNER.getPrizeNum()].getPlayers()) {
-            int tempDif = Math.abs(player.getPredictedScore() - totalScore);
-            if (tempDif < smallestDif) {
-                smallestDif = tempDif;
-            }
-        }
-        Iterator<PlayerInterface> tempItr = contests[PrizeType.CHOSEN_WINNER.getPrizeNum()].getPlayers().iterator();
-        while (tempItr.hasNext()) {
-            PlayerInterface player = tempItr.next();
-            int tempDif = Math.abs(player.getPredictedScore() - totalScore);
-            if (tempDif != smallestDif) {
-                tempItr.remove();
+    private void updateBalances(List<Double> pricing, List<PlayerInterface> players) {
+        for (PlayerInterface player : players) {
+            if (!player.hasPaid()) {
+                player.setBalance(0 - pricing.get(player.getNumSpots()));
+            } else {
+                player.setBalance(0);
             }
         }
-    }
 
-    private void updateBalances() {
         double earnings = 0;
-        for (Contest contest : contests) {
-            if (contest.equals(contests[PrizeType.PICK_FOUR_CHAMPION.getPrizeNum()])
+        for (Contest contest : contests.values()) {
+            if (contest.equals(contests.get(PrizeType.PICK_FOUR_CHAMPION))
                     && contest.getPlayers().size() > 1) {
                 earnings = (contest.getPrizeMoney()
-                        + contests[PrizeType.PICK_FOUR_RUNNERUP.getPrizeNum()].getPrizeMoney())
+                        + getPrizeMoney(PrizeType.PICK_FOUR_RUNNERUP))
                         / contest.getPlayers().size();
-
-                contests[PrizeType.PICK_FOUR_RUNNERUP.getPrizeNum()].setPlayers(new LinkedList<>());
-                contests[PrizeType.PICK_FOUR_RUNNERUP.getPrizeNum()].setTeams(new LinkedList<>());
             } else if (contest.splitPrize()) {
                 earnings = contest.getPrizeMoney() / contest.getPlayers().size();
             }  else {
@@ -0,0 +1,64 @@
+package model.prizes;
+
+import model.player.PlayerInterface;
+import java.util.Set;
+
+/**
+ * Decides the winners of one or more contests. A rule declares what its winners depend on,
+ * and ContestManager only works a rule out again when one of those inputs has changed.
+ *
+ * The manager works out every stale rule in one pass. It calls start on each rule, then
+ * calls check for every player on the rules that asked for it, going through the players
+ * once for all of them, and then calls finish on each rule. A rule that only needs to
+ * look up the owners of a few teams does all of its work in start and asks for no players.
+ *
+ * @author Clay Mackenthun
+ *
+ * @see ContestManager#addRule(ContestRule)
+ */
+public interface ContestRule {
+
+	/**
+	 * Returns the prizes whose contests the rule decides. A rule for a side contest returns a
+	 * prize of its own, and the manager makes a contest for it. The prizes must not change once
+	 * the rule has been added.
+	 *
+	 * @return prizes The prizes whose contests the rule decides
+	 */
+	public Prize[] getPrizes();
+
+	/**
+	 * Returns what the rule's winners depend on besides the players and the teams in the
+	 * bracket. The set must not change once the rule has been added.
+	 *
+	 * @return inputs The inputs that make the rule stale when they change
+	 */
+	public Set<ContestInput> getInputs();
+
+	/**
+	 * Starts working out the winners. The contests of the rule's prizes have been emptied.
+	 *
+	 * @param context The bracket, the players and the owners of each team
+	 * @param contests The contests of the rule's prizes, in the order of getPrizes
+	 *
+	 * @return checkPlayers True if check should be called for every player
+	 */
+	public boolean start(ContestContext context, Contest[] contests);
+
+	/**
+	 * Checks one player. Called for each player in order, only if start returned true.
+	 *
+	 * @param context The bracket, the players and the owners of each team
+	 * @param contests The contests of the rule's prizes, in the order of getPrizes
+	 * @param player The player to check
+	 */
+	public void check(ContestContext context, Contest[] contests, PlayerInterface player);
+
+	/**
+	 * Finishes working out the winners once every player has been checked
+	 *
+	 * @param context The bracket, the players and the owners of each team
+	 * @param contests The contests of the rule's prizes, in the order of getPrizes
+	 */
+	public void finish(ContestContext context, Contest[] contests);
+}
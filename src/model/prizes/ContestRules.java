@@ -0,0 +1,362 @@
+package model.prizes;
+
+import model.bracket.Bracket;
+import model.bracket.GameResult;
+import model.player.PlayerInterface;
+import model.team.TeamInterface;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The rules of the pool's standard contests, one for each prize
+ *
+ * @see ContestRule
+ */
+public final class ContestRules {
+
+    private static final int FINAL_FOUR_WINS = 4;
+
+    private ContestRules() {
+    }
+
+    /**
+     * Creates a rule for every standard prize
+     *
+     * @return rules New rules that decide every PrizeType
+     */
+    public static List<ContestRule> createDefaults() {
+        List<ContestRule> rules = new ArrayList<>();
+        rules.add(new FinalFourTeam());
+        rules.add(new ChampionTeam());
+        rules.add(new FirstOvertimeLoss());
+        rules.add(new FirstRoundBlowout());
+        rules.add(new WonFirstGame());
+        rules.add(new CinderellaTeam());
+        rules.add(new ChosenWinner());
+        rules.add(new PickFour());
+        return rules;
+    }
+
+    /**
+     * Keeps only the players whose predicted championship score is closest
+     * to the total score of the championship game
+     *
+     * @param bracket The bracket the champion is in
+     * @param champion The team that won the tournament
+     * @param contest The chosen winner contest, holding every player that chose the champion
+     */
+    static void chosenWinnerTiebreaker(Bracket bracket, TeamInterface champion, Contest contest) {
+        int totalScore;
+        GameResult championship = bracket.getGame(champion, bracket.getNumRounds());
+        totalScore = championship.getScore() + championship.getOpponentScore();
+        int smallestDif = Integer.MAX_VALUE;
+        for (PlayerInterface player : contest.getPlayers()) {
+            int tempDif = Math.abs(player.getPredictedScore() - totalScore);
+            if (tempDif < smallestDif) {
+                smallestDif = tempDif;
+            }
+        }
+        Iterator<PlayerInterface> tempItr = contest.getPlayers().iterator();
+        while (tempItr.hasNext()) {
+            PlayerInterface player = tempItr.next();
+            int tempDif = Math.abs(player.getPredictedScore() - totalScore);
+            if (tempDif != smallestDif) {
+                tempItr.remove();
+            }
+        }
+    }
+
+    /**
+     * A rule that looks up the owners of the teams that won its one prize
+     * and does not need to check every player
+     */
+    private abstract static class TeamContest implements ContestRule {
+
+        private final PrizeType prizeType;
+        private final Set<ContestInput> inputs;
+
+        TeamContest(PrizeType prizeType, ContestInput input) {
+            this.prizeType = prizeType;
+            this.inputs = Collections.unmodifiableSet(EnumSet.of(input));
+        }
+
+        @Override
+        public Prize[] getPrizes() {
+            return new Prize[]{prizeType};
+        }
+
+        @Override
+        public Set<ContestInput> getInputs() {
+            return inputs;
+        }
+
+        @Override
+        public boolean start(ContestContext context, Contest[] contests) {
+            decide(context, contests[0]);
+            return false;
+        }
+
+        abstract void decide(ContestContext context, Contest contest);
+
+        @Override
+        public void check(ContestContext context, Contest[] contests, PlayerInterface player) {
+        }
+
+        @Override
+        public void finish(ContestContext context, Contest[] contests) {
+        }
+    }
+
+    /**
+     * Each team that reached the final four, won by the first player that owns it
+     */
+    private static final class FinalFourTeam extends TeamContest {
+
+        FinalFourTeam() {
+            super(PrizeType.FINAL_FOUR_TEAM, ContestInput.GAME_RESULT);
+        }
+
+        @Override
+        void decide(ContestContext context, Contest contest) {
+            List<TeamInterface> finalFourTeams = new ArrayList<>();
+            for (TeamInterface team : context.getBracket().getTeams()) {
+                if (team.getWins() >= FINAL_FOUR_WINS) {
+                    finalFourTeams.add(team);
+                }
+            }
+            context.award(contest, finalFourTeams, true);
+        }
+    }
+
+    private static final class ChampionTeam extends TeamContest {
+
+        ChampionTeam() {
+            super(PrizeType.CHAMPION_TEAM, ContestInput.CHAMPIONSHIP);
+        }
+
+        @Override
+        void decide(ContestContext context, Contest contest) {
+            TeamInterface champion = context.getBracket().getChampion();
+            if (champion != null) {
+                context.award(contest, Collections.singletonList(champion), false);
+            }
+        }
+    }
+
+    /**
+     * The owners of the team that lost the first overtime game. A team that
+     * has left the bracket is not in the owner index, so its owners are
+     * found by checking every player.
+     */
+    private static final class FirstOvertimeLoss extends TeamContest {
+
+        FirstOvertimeLoss() {
+            super(PrizeType.FIRST_OVERTIME_LOSS, ContestInput.OVERTIME_LOSER);
+        }
+
+        @Override
+        public boolean start(ContestContext context, Contest[] contests) {
+            TeamInterface otLoser = context.getOTLoser();
+            if (otLoser != null && otLoser.getId() < 0) {
+                return true;
+            }
+            return super.start(context, contests);
+        }
+
+        @Override
+        void decide(ContestContext context, Contest contest) {
+            if (context.getOTLoser() != null) {
+                context.award(contest, Collections.singletonList(context.getOTLoser()), false);
+            }
+        }
+
+        @Override
+        public void check(ContestContext context, Contest[] contests, PlayerInterface player) {
+            Contest contest = contests[0];
+            for (TeamInterface ownedTeam : player.getTeams()) {
+                if (context.getOTLoser().equals(ownedTeam)) {
+                    contest.getTeams().add(ownedTeam);
+                    contest.getPlayers().add(player);
+                }
+            }
+        }
+    }
+
+    /**
+     * The owners of the teams that lost a first round game by the largest
+     * margin, looked up in the bracket's table of margins
+     */
+    private static final class FirstRoundBlowout extends TeamContest {
+
+        FirstRoundBlowout() {
+            super(PrizeType.FIRST_ROUND_BLOWOUT, ContestInput.FIRST_ROUND_MARGIN);
+        }
+
+        @Override
+        void decide(ContestContext context, Contest contest) {
+            if (!context.getBracket().initialized()) {
+                return;
+            }
+            List<TeamInterface> losers = new ArrayList<>();
+            for (GameResult game : context.getBracket().getBlowouts()) {
+                losers.add(game.getOpponent());
+            }
+            context.award(contest, losers, false);
+        }
+    }
+
+    private static final class WonFirstGame extends TeamContest {
+
+        WonFirstGame() {
+            super(PrizeType.WON_FIRST_GAME, ContestInput.GAME_RESULT);
+        }
+
+        @Override
+        void decide(ContestContext context, Contest contest) {
+            List<TeamInterface> winners = new ArrayList<>();
+            for (TeamInterface team : context.getBracket().getTeams()) {
+                if (team.getWins() > 0) {
+                    winners.add(team);
+                }
+            }
+            context.award(contest, winners, false);
+        }
+    }
+
+    /**
+     * The owned underdog that won the most games, then the one with the
+     * worst seed. Every owned team that ties on both wins.
+     */
+    private static final class CinderellaTeam extends TeamContest {
+
+        CinderellaTeam() {
+            super(PrizeType.CINDERELLA_TEAM, ContestInput.UNDERDOG_RESULT);
+        }
+
+        @Override
+        void decide(ContestContext context, Contest contest) {
+            List<TeamInterface> cinderellas = new ArrayList<>();
+            int mostWins = 0;
+            int cinderellaSeed = 0;
+            for (TeamInterface team : context.getBracket().getTeams()) {
+                if (team.getSeed() < ContestInput.UNDERDOG_SEED || team.getWins() == 0 || !context.isOwned(team)) {
+                    continue;
+                }
+                if (team.getWins() > mostWins
+                        || (team.getWins() == mostWins && team.getSeed() > cinderellaSeed)) {
+                    cinderellas.clear();
+                    mostWins = team.getWins();
+                    cinderellaSeed = team.getSeed();
+                }
+                if (team.getWins() == mostWins && team.getSeed() == cinderellaSeed) {
+                    cinderellas.add(team);
+                }
+            }
+            context.award(contest, cinderellas, false);
+        }
+    }
+
+    /**
+     * The players that chose the champion, closest predicted championship
+     * score breaking ties
+     */
+    private static final class ChosenWinner extends TeamContest {
+
+        ChosenWinner() {
+            super(PrizeType.CHOSEN_WINNER, ContestInput.CHAMPIONSHIP);
+        }
+
+        @Override
+        void decide(ContestContext context, Contest contest) {
+            TeamInterface champion = context.getBracket().getChampion();
+            if (champion == null) {
+                return;
+            }
+            for (PlayerInterface player : context.inOrder(context.getOwners().getChoosers(champion))) {
+                contest.getTeams().add(champion);
+                contest.getPlayers().add(player);
+            }
+            if (contest.getPlayers().size() > 1) { //Tiebreaker
+                chosenWinnerTiebreaker(context.getBracket(), champion, contest);
+            }
+        }
+    }
+
+    /**
+     * The players whose pick four teams scored the most and second most
+     * points. Every player is checked, since every player has picks.
+     */
+    static final class PickFour implements ContestRule {
+
+        private static final Set<ContestInput> INPUTS = Collections.unmodifiableSet(EnumSet.of(ContestInput.GAME_RESULT));
+        private static final int CHAMPION = 0;// Index of each prize's contest
+        private static final int RUNNERUP = 1;
+        private int topPickFourScore;
+        private int secondPickFourScore;
+
+        @Override
+        public Prize[] getPrizes() {
+            return new Prize[]{PrizeType.PICK_FOUR_CHAMPION, PrizeType.PICK_FOUR_RUNNERUP};
+        }
+
+        @Override
+        public Set<ContestInput> getInputs() {
+            return INPUTS;
+        }
+
+        @Override
+        public boolean start(ContestContext context, Contest[] contests) {
+            topPickFourScore = 0;
+            secondPickFourScore = 0;
+            return true;
+        }
+
+        @Override
+        public void check(ContestContext context, Contest[] contests, PlayerInterface player) {
+            int score = player.getPickFourPoints(context.getBracket().getPickFourPoints());
+            Contest top = contests[CHAMPION];
+            Contest second = contests[RUNNERUP];
+            if (score > topPickFourScore) {
+                second.setPlayers(top.getPlayers());
+                top.setPlayers(new LinkedList<>());
+                top.getPlayers().add(player);
+                secondPickFourScore = topPickFourScore;
+                topPickFourScore = score;
+            } else if (score == topPickFourScore) {
+                top.getPlayers().add(player);
+            } else if (score > secondPickFourScore) {
+                second.setPlayers(new LinkedList<>());
+                second.getPlayers().add(player);
+                secondPickFourScore = score;
+            } else if (score == secondPickFourScore) {
+                second.getPlayers().add(player);
+            }
+        }
+
+        @Override
+        public void finish(ContestContext context, Contest[] contests) {
+            int[] points = context.getBracket().getPickFourPoints();
+            int numPlayers = context.getPlayers().size();
+            List<PlayerInterface> p4Winners = contests[CHAMPION].getPlayers();
+            if (!p4Winners.isEmpty() && p4Winners.size() == numPlayers
+                    && p4Winners.get(0).getPickFourPoints(points) == 0) {
+                contests[CHAMPION].setPlayers(new LinkedList<>());
+            }
+            List<PlayerInterface> p4RunnerUps = contests[RUNNERUP].getPlayers();
+            if (!p4RunnerUps.isEmpty() && p4RunnerUps.size()+p4Winners.size() == numPlayers
+                    && p4RunnerUps.get(0).getPickFourPoints(points) == 0) {
+                contests[RUNNERUP].setPlayers(new LinkedList<>());
+            }
+            if (contests[CHAMPION].getPlayers().size() > 1) {
+                //Tied champions split both prizes so there is no runner-up
+                contests[RUNNERUP].setPlayers(new LinkedList<>());
+                contests[RUNNERUP].setTeams(new LinkedList<>());
+            }
+        }
+    }
+}
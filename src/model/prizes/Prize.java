@@ -0,0 +1,39 @@
+package model.prizes;
+
+/**
+ * A prize that a ContestRule decides the winners of. The standard prizes are the PrizeTypes; a
+ * rule for a side contest supplies its own prize, and ContestManager makes a contest for it when
+ * the rule is added. Prizes are told apart by name, which is what the game log records, so every
+ * prize of a manager must have a different name. toString is what the prize is listed as.
+ *
+ * @author Clay Mackenthun
+ *
+ * @see ContestRule#getPrizes()
+ */
+public interface Prize {
+
+	/**
+	 * @return name The name of the prize, different from the name of every other prize
+	 */
+	public String getName();
+
+	/**
+	 * @return description Who wins the prize
+	 */
+	public String getDescription();
+
+	/**
+	 * @return tiebreaker How ties for the prize are broken
+	 */
+	public String getTiebreaker();
+
+	/**
+	 * @return prizeMoney The money the prize pays until it is set to something else
+	 */
+	public double getDefaultPrizeMoney();
+
+	/**
+	 * @return splitPrize True if the winners split the money, false if each of them is paid it
+	 */
+	public boolean splitPrize();
+}
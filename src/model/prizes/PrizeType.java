@@ -1,57 +1,66 @@
 package model.prizes;
 
-public enum PrizeType {
+/**
+ * The standard prizes of the pool, each with the money it pays by default
+ *
+ * @see ContestRules#createDefaults()
+ */
+public enum PrizeType implements Prize {
 
 	CHOSEN_WINNER(0, 
 			"U-Pick-It",
 			"The player(s) who correctly select the\n"
-			+ "team that won the NCAA tournament.","Predicted Championship Score."),
+			+ "team that won the NCAA tournament.","Predicted Championship Score.", 20, true),
 	CINDERELLA_TEAM(1,
 			"Cinderella",
 			"The player(s) with the furthest advancing\n"
-			+ "team ranked 9-16","None. Split Prize."),
+			+ "team ranked 9-16","None. Split Prize.", 10, true),
 	FIRST_OVERTIME_LOSS(2,
 			"Hard-Luck Loser",
 			"The player who owns the first team to lose\n"
-			+ "in overtime","N/A"),
+			+ "in overtime","N/A", 10, false),
 	FIRST_ROUND_BLOWOUT(3,
 			"Just Glad To Be Here",
 			"The player(s) who own the team that lost by\n"
-			+ "the largest margin in the first round","None. Split Prize."),
+			+ "the largest margin in the first round","None. Split Prize.", 20, true),
 	WON_FIRST_GAME(4,
 			"Won First Game",
 			"The players whose team(s) have won at least\n"
-			+ "one game","N/A"),
+			+ "one game","N/A", 5, false),
 	
 	FINAL_FOUR_TEAM(5, 
 			"Final Four Team",
 			"The players whose team(s) made it to the\n"
-			+ "final four","N/A"),
+			+ "final four","N/A", 20, false),
 	CHAMPION_TEAM(6, 
 			"Championship Team",
 			"The player who owns the team that won the\n"
-			+ "NCAA tournament","N/A"),
+			+ "NCAA tournament","N/A", 80, false),
 	
 	PICK_FOUR_CHAMPION(7, 
 			"Pick Four Contest Champion",
 			"The player(s) whose pick four teams scored the\n"
-			+ "most points","None. Split Prize."),
+			+ "most points","None. Split Prize.", 30, true),
 	PICK_FOUR_RUNNERUP(8, 
 			"Pick Four Contest Runner-Up",
 			"The player(s) whose pick four teams scored the\n"
-			+ "second most points","None. Split Prize.");
+			+ "second most points","None. Split Prize.", 10, true);
 	
-	private static final int NUM_PRIZES = 9;
+	private static final int NUM_PRIZES = values().length;//Prize numbers run from 0 in declaration order
 	private int prizeNum;
 	private String name;
 	private String description;
         private String tiebreaker;
+	private double prizeMoney;
+	private boolean splitPrize;
 	
-	PrizeType(int prizeNum, String name, String description, String tiebreaker) {
+	PrizeType(int prizeNum, String name, String description, String tiebreaker, double prizeMoney, boolean splitPrize) {
 		this.prizeNum = prizeNum;
 		this.name = name;
 		this.description = description;
                 this.tiebreaker = tiebreaker;
+		this.prizeMoney = prizeMoney;
+		this.splitPrize = splitPrize;
 	}
 	
 	public int getPrizeNum() {
@@ -62,17 +71,30 @@ public enum PrizeType {
 		return NUM_PRIZES;
 	}
 	
+	@Override
 	public String getName() {
 		return this.name;
 	}
 	
+	@Override
 	public String getDescription() {
 		return this.description;
 	}
         
+        @Override
         public String getTiebreaker() {
             return this.tiebreaker;
         }
+
+	@Override
+	public double getDefaultPrizeMoney() {
+		return this.prizeMoney;
+	}
+
+	@Override
+	public boolean splitPrize() {
+		return this.splitPrize;
+	}
 	
 	public static PrizeType findPrizeType(String prizeType) {
 		prizeType = prizeType.trim().toLowerCase();
@@ -14,6 +14,10 @@ public class Team implements TeamInterface, Comparable<TeamInterface>
     private int wins;
     /*Whether the team is still in the tournament or if they have been eliminated*/
     private boolean alive;
+    /*The id given to the team by its bracket, -1 if the team is not in a bracket*/
+    private int id = -1;
+    /*Told when the name changes, set by the team's bracket*/
+    private TeamNameListener nameListener;
 
     /**
      * Constructs a team that is alive and has zero wins
@@ -69,7 +73,16 @@ public class Team implements TeamInterface, Comparable<TeamInterface>
     public void setName(String name) {
             if(name == null || name.trim().length() < 1)
                     throw new IllegalArgumentException();
-            this.name = name;
+            String oldName = this.name;
+            this.name = name.trim();
+            if(nameListener != null) {
+                try {
+                    nameListener.nameChanged(this, oldName);
+                } catch(IllegalArgumentException e) {
+                    this.name = oldName;
+                    throw e;
+                }
+            }
     }
 
     public Region getRegion() {
@@ -117,6 +130,18 @@ public class Team implements TeamInterface, Comparable<TeamInterface>
             this.alive = status;
     }
 
+    public int getId() {
+            return id;
+    }
+
+    public void setId(int id) {
+            this.id = id;
+    }
+
+    public void setNameListener(TeamNameListener listener) {
+            this.nameListener = listener;
+    }
+
     private String determineShortName(String name) {
         if(name == null)
             return "";
@@ -24,4 +24,27 @@ public interface TeamInterface extends Comparable<TeamInterface> {
 	public void setWins(int wins);
 
 	public void setStatus(boolean status);
+
+	/**
+	 * Returns the id the team's bracket gave it, which is the team's bit in the bracket's team masks
+	 * 
+	 * @return id The team's id, -1 if the team is not in a bracket
+	 * @see TeamMask
+	 */
+	public int getId();
+
+	/**
+	 * Sets the team's id. Called by the bracket when the team is added to it or removed from it.
+	 * 
+	 * @param id The team's id, -1 if the team is not in a bracket
+	 */
+	public void setId(int id);
+	
+	/**
+	 * Sets the listener told when the team's name changes. Called by the bracket when the team is
+	 * added to it or removed from it.
+	 * 
+	 * @param listener The listener, null if the team is not in a bracket
+	 */
+	public void setNameListener(TeamNameListener listener);
 }
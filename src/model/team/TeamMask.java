@@ -0,0 +1,76 @@
+package model.team;
+
+/**
+ * Helpers for team masks. A team mask is a long[] with one bit for each team id in a bracket,
+ * bit (id % 64) of word (id / 64). A 64 team bracket fits in a single long, so asking how many
+ * teams of a set are still alive is one AND and one bit count.
+ *
+ * @author Clay Mackenthun
+ *
+ * @see model.bracket.Bracket#getAliveMask()
+ */
+public final class TeamMask {
+
+    private TeamMask() {
+    }
+
+    /**
+     * Creates an empty mask with room for the given number of teams
+     *
+     * @param numTeams The number of team ids the mask must hold
+     * @return mask A mask with no teams in it
+     */
+    public static long[] create(int numTeams) {
+        if (numTeams < 0) {
+            throw new IllegalArgumentException();
+        }
+        return new long[(numTeams + 63) >>> 6];
+    }
+
+    /**
+     * @return contains True if the team with the given id is in the mask
+     */
+    public static boolean get(long[] mask, int id) {
+        return (mask[id >>> 6] & (1L << id)) != 0;
+    }
+
+    public static void set(long[] mask, int id) {
+        mask[id >>> 6] |= 1L << id;
+    }
+
+    public static void clear(long[] mask, int id) {
+        mask[id >>> 6] &= ~(1L << id);
+    }
+
+    public static void set(long[] mask, int id, boolean value) {
+        if (value) {
+            set(mask, id);
+        } else {
+            clear(mask, id);
+        }
+    }
+
+    /**
+     * @return count The number of teams in the mask
+     */
+    public static int count(long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Counts the teams that are in both masks. The masks do not need to be the same length.
+     *
+     * @return count The number of teams in both masks
+     */
+    public static int countBoth(long[] first, long[] second) {
+        int count = 0;
+        for (int i = Math.min(first.length, second.length) - 1; i >= 0; i--) {
+            count += Long.bitCount(first[i] & second[i]);
+        }
+        return count;
+    }
+}
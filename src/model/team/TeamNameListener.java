@@ -0,0 +1,21 @@
+package model.team;
+
+/**
+ * Told when a team's name changes. A bracket sets itself as the listener of each team it
+ * holds so that its name index follows the team however the team is renamed.
+ * 
+ * @see TeamInterface#setNameListener(TeamNameListener)
+ */
+public interface TeamNameListener {
+	
+	/**
+	 * Called after the team's name has been set
+	 * 
+	 * @param team The renamed team
+	 * @param oldName The name the team had before
+	 * 
+	 * @throws IllegalArgumentException if the new name cannot be used, in which case the team
+	 * goes back to its old name
+	 */
+	public void nameChanged(TeamInterface team, String oldName);
+}
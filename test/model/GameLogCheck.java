@@ -0,0 +1,164 @@
+package model;
+
+import model.player.PlayerInterface;
+import model.prizes.Prize;
+import model.team.Region;
+import model.team.TeamInterface;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Checks that replaying a game log rebuilds the database it was recorded
+ * from, and that the contests kept up to date game by game agree with
+ * working them out from scratch. Run it with the compiled classes on the class path; it throws
+ * AssertionError on the first check that fails.
+ *
+ * @author Clay Mackenthun
+ */
+public class GameLogCheck {
+
+    public static void main(String[] args) {
+        for (long seed = 1; seed <= 5; seed++) {
+            replayMatchesEveryStep(seed);
+        }
+        System.out.println("GameLogCheck passed");
+    }
+
+    /**
+     * Runs a pool from the draw through the games with edits along the way,
+     * and checks that replaying the log up to the end of each step gives the
+     * state the database was in after that step
+     */
+    private static void replayMatchesEveryStep(long seed) {
+        Random random = new Random(seed);
+        MarchMadnessDB db = new MarchMadnessDB();
+        // Each update of the contests is also checked against working them out from scratch
+        db.setVerifyContests(true);
+        List<String> states = new ArrayList<String>();
+        List<Integer> sizes = new ArrayList<Integer>();
+
+        for (Region region : Region.values()) {
+            for (int s = 1; s <= 16; s++) {
+                db.addTeam(region + " " + s, s, region);
+            }
+        }
+        record(db, states, sizes);
+        db.moveTeam(db.getTeam(16, Region.WEST), 16, Region.EAST);
+        check(db.addTeam("Replacement 16", 16, Region.WEST) == 0, "The replacement team was not added");
+        db.renameTeam(db.getTeam(1, Region.SOUTH), "South Top Seed");
+        record(db, states, sizes);
+
+        for (int i = 0; i < 16; i++) {
+            db.addPlayer("Player " + i, 4);
+        }
+        db.setPaid(db.findPlayer("Player 3"), true);
+        db.setPredictedScore(db.findPlayer("Player 5"), 150);
+        db.renamePlayer(db.findPlayer("Player 7"), "Renamed Player");
+        record(db, states, sizes);
+
+        check(db.assignTeams(random.nextLong()) == 0, "The teams were not assigned");
+        record(db, states, sizes);
+
+        List<TeamInterface> teams = db.getTeams();
+        for (PlayerInterface player : db.getPlayers()) {
+            List<TeamInterface> picks = new ArrayList<TeamInterface>();
+            while (picks.size() < 4) {
+                TeamInterface team = teams.get(random.nextInt(teams.size()));
+                if (!picks.contains(team)) {
+                    picks.add(team);
+                }
+            }
+            db.setPickFourTeams(player, picks);
+            db.addChosenWinner(player, teams.get(random.nextInt(teams.size())));
+            db.setPredictedScore(player, 100 + random.nextInt(80));
+        }
+        db.setPrizeMoney(db.getPrizes()[0], 35);
+        record(db, states, sizes);
+
+        for (int round = 1; round <= 6; round++) {
+            Map<TeamInterface, Integer> scores = new HashMap<TeamInterface, Integer>();
+            List<Integer> pool = new ArrayList<Integer>();
+            for (int score = 40; score < 140; score++) {
+                pool.add(score);
+            }
+            Collections.shuffle(pool, random);
+            for (TeamInterface team : db.getTeams()) {
+                if (team.is_alive() && db.getScores(team).size() == round - 1) {
+                    scores.put(team, pool.get(scores.size()));
+                }
+            }
+            if (round % 2 == 0) {
+                check(db.addScores(scores) == 0, "A round of scores was rejected");
+            } else {
+                for (Map.Entry<TeamInterface, Integer> entry : scores.entrySet()) {
+                    db.addScore(entry.getKey(), entry.getValue());
+                }
+            }
+            if (round == 1) {
+                db.setOTloser(db.getTeams().get(random.nextInt(teams.size())));
+            }
+            if (round == 3) {
+                // Swap the result of one of the round's games
+                TeamInterface team = db.getTeams().get(random.nextInt(teams.size()));
+                List<Integer> edited = new ArrayList<Integer>(db.getScores(team));
+                if (!edited.isEmpty()) {
+                    edited.set(edited.size() - 1, 200);
+                    db.editScores(team, edited);
+                }
+                db.resetPlayer(db.findPlayer("Player 2"));
+                db.setNumSpots(db.findPlayer("Player 4"), 3);
+            }
+            record(db, states, sizes);
+        }
+
+        for (int i = 0; i < states.size(); i++) {
+            MarchMadnessDB replayed = MarchMadnessDB.replay(db.getGameLog(), sizes.get(i));
+            check(state(replayed).equals(states.get(i)),
+                    "Seed " + seed + ": replaying " + sizes.get(i) + " events gave\n" + state(replayed) + "instead of\n" + states.get(i));
+        }
+        check(state(MarchMadnessDB.replay(db.getGameLog())).equals(state(db)), "Seed " + seed + ": the full replay differs");
+    }
+
+    private static void record(MarchMadnessDB db, List<String> states, List<Integer> sizes) {
+        states.add(state(db));
+        sizes.add(db.getGameLog().size());
+    }
+
+    /**
+     * Returns everything the log is meant to rebuild: the teams and their
+     * scores, the players and their entries, and the prizes
+     */
+    private static String state(MarchMadnessDB db) {
+        db.update();
+        StringBuilder state = new StringBuilder();
+        for (TeamInterface team : db.getTeams()) {
+            state.append(team.getName()).append(' ').append(team.getSeed()).append(' ').append(team.getRegion())
+                    .append(' ').append(db.getScores(team)).append(' ').append(team.getWins())
+                    .append(' ').append(team.is_alive()).append('\n');
+        }
+        for (PlayerInterface player : db.getPlayers()) {
+            state.append(player.getName()).append(' ').append(player.getNumSpots()).append(' ').append(player.hasPaid())
+                    .append(' ').append(player.getPredictedScore()).append(' ').append(player.getTeams())
+                    .append(' ').append(player.getPickFourTeams()).append(' ').append(player.getChosenWinner())
+                    .append(' ').append(db.getPickFourPoints(player)).append('\n');
+        }
+        for (Prize prize : db.getPrizes()) {
+            state.append(prize.getName()).append(' ').append(db.getPrizeMoney(prize))
+                    .append(' ').append(db.getPrizeWinner(prize)).append(' ').append(db.getPrizeWinnerTeam(prize)).append('\n');
+        }
+        state.append(db.getOTloser()).append(' ').append(Arrays.toString(db.getRegionMatchups()))
+                .append(' ').append(db.getAssignmentSeed()).append('\n');
+        return state.toString();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package model;
+
+import model.player.PlayerInterface;
+import model.player.Standing;
+import model.team.Region;
+import model.team.TeamInterface;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks the pick four leaderboard against a full sort of the players, and
+ * that its pages put together are the whole leaderboard. Run it with the
+ * compiled classes on the class path; it throws AssertionError on the first
+ * check that fails.
+ *
+ * @author Clay Mackenthun
+ */
+public class PickFourLeaderboardCheck {
+
+    private static final int[] PAGE_SIZES = {1, 3, 7, 10, 25, 64};
+
+    public static void main(String[] args) {
+        for (long seed = 1; seed <= 10; seed++) {
+            matchesFullSortEveryRound(seed);
+        }
+        System.out.println("PickFourLeaderboardCheck passed");
+    }
+
+    /**
+     * Plays a tournament a round at a time and checks the leaderboard before
+     * the first game and after every round
+     */
+    private static void matchesFullSortEveryRound(long seed) {
+        Random random = new Random(seed);
+        MarchMadnessDB db = new MarchMadnessDB();
+        for (Region region : Region.values()) {
+            for (int s = 1; s <= 16; s++) {
+                db.addTeam(region + " " + s, s, region);
+            }
+        }
+        // Picks come from a few teams so that many players tie on points
+        List<TeamInterface> teams = db.getTeams();
+        List<TeamInterface> favourites = new ArrayList<TeamInterface>();
+        for (int i = 0; i < 12; i++) {
+            favourites.add(teams.get(random.nextInt(teams.size())));
+        }
+        for (int i = 0; i < 64; i++) {
+            db.addPlayer("Player " + i, 1);
+            List<TeamInterface> picks = new ArrayList<TeamInterface>();
+            while (picks.size() < 4) {
+                TeamInterface team = favourites.get(random.nextInt(favourites.size()));
+                if (!picks.contains(team)) {
+                    picks.add(team);
+                }
+            }
+            db.setPickFourTeams(db.findPlayer("Player " + i), picks);
+        }
+
+        checkLeaderboard(db, seed, 0);
+        for (int round = 1; round <= 6; round++) {
+            List<Integer> pool = new ArrayList<Integer>();
+            for (int score = 40; score < 140; score++) {
+                pool.add(score);
+            }
+            Collections.shuffle(pool, random);
+            int next = 0;
+            for (TeamInterface team : db.getTeams()) {
+                if (team.is_alive() && db.getScores(team).size() == round - 1) {
+                    db.addScore(team, pool.get(next++));
+                }
+            }
+            checkLeaderboard(db, seed, round);
+        }
+    }
+
+    private static void checkLeaderboard(MarchMadnessDB db, long seed, int round) {
+        String where = "Seed " + seed + " round " + round + ": ";
+        List<PlayerInterface> players = db.getPlayers();
+        final int[] points = new int[players.size()];
+        final int[] potential = new int[players.size()];
+        List<Integer> order = new ArrayList<Integer>();
+        for (int i = 0; i < players.size(); i++) {
+            points[i] = db.getPickFourPoints(players.get(i));
+            potential[i] = points[i] + db.getPotentialPickFourPoints(players.get(i));
+            order.add(i);
+        }
+        // Points, then potential, then name, which is the order of the players
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                if (points[a] != points[b]) {
+                    return points[b] - points[a];
+                }
+                if (potential[a] != potential[b]) {
+                    return potential[b] - potential[a];
+                }
+                return a - b;
+            }
+        });
+        List<String> expected = new ArrayList<String>();
+        int rank = 1;
+        for (int i = 0; i < order.size(); i++) {
+            if (i > 0 && points[order.get(i)] != points[order.get(i - 1)]) {
+                rank = i + 1;
+            }
+            expected.add(new Standing(players.get(order.get(i)), rank, points[order.get(i)], potential[order.get(i)]).toString());
+        }
+
+        check(strings(db.getPickFourStandings(0, -1)).equals(expected), where + "the leaderboard is not in sorted order");
+        for (int size : PAGE_SIZES) {
+            List<String> paged = new ArrayList<String>();
+            for (int offset = 0; offset < players.size(); offset += size) {
+                List<Standing> page = db.getPickFourStandings(offset, size);
+                check(page.size() == Math.min(size, players.size() - offset), where + "page at " + offset + " has " + page.size() + " standings");
+                paged.addAll(strings(page));
+            }
+            check(paged.equals(expected), where + "pages of " + size + " differ from the full leaderboard");
+            check(db.getPickFourStandings(players.size(), size).isEmpty(), where + "a page past the end is not empty");
+
+            List<PlayerInterface> top = db.getPickFourLeaderBoard(size);
+            check(top.size() == Math.min(size, players.size()), where + "the top " + size + " has " + top.size() + " players");
+            for (int i = 0; i < top.size(); i++) {
+                check(top.get(i) == players.get(order.get(i)), where + "the top " + size + " differ from the full leaderboard");
+            }
+        }
+    }
+
+    private static List<String> strings(List<Standing> standings) {
+        List<String> strings = new ArrayList<String>();
+        for (Standing standing : standings) {
+            strings.add(standing.toString());
+        }
+        return strings;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
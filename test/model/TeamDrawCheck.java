@@ -0,0 +1,109 @@
+package model;
+
+import model.player.PlayerInterface;
+import model.team.Region;
+import model.team.TeamInterface;
+import java.util.Arrays;
+
+/**
+ * Checks that a draw of teams is a shuffle of every team and that the same
+ * seed always makes the same draw. Run it with the compiled classes on the
+ * class path; it throws AssertionError on the first check that fails.
+ *
+ * @author Clay Mackenthun
+ */
+public class TeamDrawCheck {
+
+    public static void main(String[] args) {
+        shuffleIsReproduciblePermutation();
+        assignmentIsReproducible();
+        seedDistributionMatchesDraws();
+        System.out.println("TeamDrawCheck passed");
+    }
+
+    /**
+     * Shuffling with a seed must give every team id once and the same order
+     * every time
+     */
+    private static void shuffleIsReproduciblePermutation() {
+        TeamDraw draw = newPool().getTeamDraw();
+        for (long seed = 0; seed < 100; seed++) {
+            int[] ids = draw.shuffle(seed);
+            check(Arrays.equals(ids, draw.shuffle(seed)), "Seed " + seed + " shuffled two ways");
+            int[] sorted = ids.clone();
+            Arrays.sort(sorted);
+            for (int i = 0; i < sorted.length; i++) {
+                check(sorted[i] == i, "Seed " + seed + " did not draw every team once: " + Arrays.toString(ids));
+            }
+        }
+        check(!Arrays.equals(draw.shuffle(1), draw.shuffle(2)), "Two seeds made the same draw");
+    }
+
+    /**
+     * Assigning teams from a seed must give the same teams to the same
+     * players in another pool and after drawing with another seed
+     */
+    private static void assignmentIsReproducible() {
+        MarchMadnessDB db = newPool();
+        MarchMadnessDB other = newPool();
+        check(db.assignTeams(42) == 0 && other.assignTeams(42) == 0, "The teams were not assigned");
+        String owners = owners(db);
+        check(owners.equals(owners(other)), "The same seed made different draws in two pools");
+        check(db.getAssignmentSeed() == 42, "The seed of the draw was not recorded");
+
+        check(db.assignTeams(7) == 0, "The teams were not assigned again");
+        check(!owners.equals(owners(db)), "Another seed made the same draw");
+        check(db.assignTeams(42) == 0, "The teams were not assigned again");
+        check(owners.equals(owners(db)), "Drawing with the seed again made a different draw");
+        check(owners.equals(owners(MarchMadnessDB.replay(db.getGameLog()))), "Replaying the log made a different draw");
+    }
+
+    /**
+     * The seed counts made in parallel must add up to the candidate draws
+     * made one at a time
+     */
+    private static void seedDistributionMatchesDraws() {
+        TeamDraw draw = newPool().getTeamDraw();
+        int draws = 500;
+        long[][] counts = draw.seedDistribution(3, draws);
+        check(Arrays.deepEquals(counts, draw.seedDistribution(3, draws)), "The seed counts changed between runs");
+
+        long[][] expected = new long[counts.length][counts[0].length];
+        for (long seed : TeamDraw.candidateSeeds(3, draws)) {
+            TeamInterface[][] teams = draw.assign(seed);
+            for (int p = 0; p < teams.length; p++) {
+                for (TeamInterface team : teams[p]) {
+                    expected[p][team.getSeed()]++;
+                }
+            }
+        }
+        check(Arrays.deepEquals(counts, expected), "The seed counts differ from the candidate draws");
+    }
+
+    private static MarchMadnessDB newPool() {
+        MarchMadnessDB db = new MarchMadnessDB();
+        for (Region region : Region.values()) {
+            for (int s = 1; s <= 16; s++) {
+                db.addTeam(region + " " + s, s, region);
+            }
+        }
+        for (int i = 0; i < 16; i++) {
+            db.addPlayer("Player " + i, 4);
+        }
+        return db;
+    }
+
+    private static String owners(MarchMadnessDB db) {
+        StringBuilder owners = new StringBuilder();
+        for (PlayerInterface player : db.getPlayers()) {
+            owners.append(player.getName()).append(' ').append(player.getTeams()).append('\n');
+        }
+        return owners.toString();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package model.bracket;
+
+import model.team.Region;
+import model.team.Team;
+import model.team.TeamInterface;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Regression checks for the way Bracket finishes and edits games. Run it with the compiled
+ * classes on the class path; it throws AssertionError on the first check that fails.
+ *
+ * @author Clay Mackenthun
+ */
+public class BracketCheck
+{
+	public static void main(String[] args)
+	{
+		loserPlacedAheadStaysEliminated();
+		removedScoreTakesTeamBack();
+		randomEdits(300);
+		idGenerationIsPerBracket();
+		renamedTeamIsFoundByNewName();
+		System.out.println("BracketCheck passed");
+	}
+
+	/**
+	 * A team that was placed ahead of an undecided game and won there must stay eliminated
+	 * when it then loses the undecided game
+	 */
+	private static void loserPlacedAheadStaysEliminated()
+	{
+		Bracket bracket = newBracket();
+		int[][] firstRound = {{1,80},{16,70},{8,80},{9,70},{5,80},{12,70},{4,80},{13,70}};
+		for(int[] score : firstRound)
+			bracket.addScore(west(bracket, score[0]), score[1]);
+		bracket.addScore(west(bracket, 5), 75);
+		bracket.addScore(west(bracket, 4), 65);//5 beats 4 in the second round
+		bracket.addScore(west(bracket, 1), 60);//8 has not played its second round game yet
+		bracket.addScore(west(bracket, 1), 70);//So 1 is placed ahead into the third round
+		bracket.addScore(west(bracket, 5), 90);//Where 5 beats it
+		bracket.addScore(west(bracket, 8), 100);//Then 8 beats 1 in the second round
+
+		check(!west(bracket, 1).is_alive(), "The loser of the second round game was revived");
+		check(west(bracket, 8).is_alive(), "The winner of the second round game is eliminated");
+		checkConsistent(bracket);
+	}
+
+	/**
+	 * Editing away the score that placed a team ahead takes the team back out of the slot it was
+	 * placed in
+	 */
+	private static void removedScoreTakesTeamBack()
+	{
+		Bracket bracket = newBracket();
+		TeamInterface team = west(bracket, 1);
+		bracket.addScore(team, 60);
+		bracket.addScore(team, 70);//Placed ahead, its opponent has no score
+		bracket.editScores(team, Collections.singletonList(60));
+
+		check(bracket.getGames(team, new GameResult[bracket.getNumRounds()]) == 1,
+				"The team was left in the slot it was placed ahead into");
+		check(bracket.getScores(team).equals(Collections.singletonList(60)), "Scores are " + bracket.getScores(team));
+		bracket.addScore(west(bracket, 16), 50);
+		bracket.addScore(team, 75);
+		check(bracket.getScores(team).equals(Arrays.asList(60, 75)), "Scores are " + bracket.getScores(team));
+		checkConsistent(bracket);
+	}
+
+	/**
+	 * Enters and edits random scores, checking every team's wins and status after each change
+	 */
+	private static void randomEdits(int sequences)
+	{
+		for(long seed = 0; seed < sequences; seed++) {
+			Random random = new Random(seed);
+			Bracket bracket = newBracket();
+			List<TeamInterface> teams = bracket.getTeams();
+			for(int step = 0; step < 200; step++) {
+				TeamInterface team = teams.get(random.nextInt(teams.size()));
+				if(random.nextInt(4) > 0)
+					bracket.addScore(team, 1+random.nextInt(30));
+				else {
+					List<Integer> scores = new ArrayList<Integer>(bracket.getScores(team));
+					if(scores.isEmpty())
+						continue;
+					scores.set(random.nextInt(scores.size()), random.nextInt(5) == 0 ? 0 : 1+random.nextInt(30));
+					bracket.editScores(team, scores);
+				}
+				checkConsistent(bracket);
+			}
+		}
+	}
+
+	/**
+	 * Giving out and taking back team ids in one bracket must not change the id generation of another
+	 */
+	private static void idGenerationIsPerBracket()
+	{
+		Bracket bracket = newBracket();
+		int generation = bracket.getIdGeneration();
+		Bracket other = newBracket();
+		other.removeTeam(other.getTeam(1, Region.WEST));
+		check(bracket.getIdGeneration() == generation, "Another bracket changed the id generation");
+		int otherGeneration = other.getIdGeneration();
+		other.addTeam(new Team("Other", 1, Region.WEST));
+		check(other.getIdGeneration() != otherGeneration, "Adding a team left the id generation unchanged");
+	}
+
+	/**
+	 * A team renamed through Team.setName must be found by its new name and not its old one, and
+	 * must not be able to take the name of another team in the bracket
+	 */
+	private static void renamedTeamIsFoundByNewName()
+	{
+		Bracket bracket = newBracket();
+		TeamInterface team = west(bracket, 1);
+		String oldName = team.getName();
+		team.setName("Renamed");
+		check(bracket.findTeam("renamed ") == team, "The renamed team is not found by its new name");
+		check(bracket.findTeam(oldName) == null, "The renamed team is still found by its old name");
+		List<TeamInterface> sorted = new ArrayList<TeamInterface>(bracket.getTeams());
+		Collections.sort(sorted);
+		check(sorted.equals(bracket.getTeams()), "The renamed team is out of name order");
+		try {
+			team.setName(west(bracket, 2).getName());
+			throw new AssertionError("A team took the name of another team");
+		} catch(IllegalArgumentException e) {
+			check(team.getName().equals("Renamed"), "A rejected name was kept");
+		}
+		bracket.removeTeam(team);
+		team.setName(oldName);
+		check(bracket.findTeam(oldName) == null, "A removed team is found after being renamed");
+	}
+
+	/**
+	 * Checks that each team's wins are the games it won and that it is alive unless it lost a game
+	 */
+	private static void checkConsistent(Bracket bracket)
+	{
+		GameResult[] games = new GameResult[bracket.getNumRounds()];
+		for(TeamInterface team : bracket.getTeams()) {
+			int numGames = bracket.getGames(team, games);
+			int wins = 0;
+			boolean lost = false;
+			for(int i = 0; i < numGames; i++) {
+				if(games[i].getWinner() == team)
+					wins++;
+				else if(games[i].getWinner() != null)
+					lost = true;
+			}
+			check(team.getWins() == wins, team + " has " + team.getWins() + " wins but won " + wins + " games");
+			check(team.is_alive() != lost, team + (lost ? " lost a game but is alive" : " is eliminated without losing"));
+		}
+	}
+
+	private static Bracket newBracket()
+	{
+		Bracket bracket = new Bracket(4, 16);
+		for(Region region : Region.values())
+			for(int seed = 1; seed <= 16; seed++)
+				bracket.addTeam(new Team("T" + region + seed, seed, region));
+		return bracket;
+	}
+
+	private static TeamInterface west(Bracket bracket, int seed)
+	{
+		return bracket.getTeam(seed, Region.WEST);
+	}
+
+	private static void check(boolean condition, String message)
+	{
+		if(!condition)
+			throw new AssertionError(message);
+	}
+}
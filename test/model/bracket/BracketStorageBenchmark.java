@@ -0,0 +1,64 @@
+package model.bracket;
+
+import model.team.Region;
+import model.team.Team;
+import model.team.TeamInterface;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the time and memory a bracket takes to play, inspect and reset a whole tournament.
+ * Only calls methods the bracket has had since before its slots were kept in primitive arrays,
+ * so the same program can be compiled against older versions to compare them.
+ *
+ * Arguments: the number of tournaments per run (default 20000) and the number of runs (default 5).
+ * The first runs warm up the JIT, so compare the last ones.
+ *
+ * @author Clay Mackenthun
+ */
+public class BracketStorageBenchmark
+{
+	private static final int ROUNDS = 6;//Rounds of a 64 team bracket
+	
+	public static void main(String[] args)
+	{
+		int tournaments = (args.length > 0) ? Integer.parseInt(args[0]) : 20000;
+		int runs = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+		Bracket bracket = new Bracket(4, 16);
+		List<TeamInterface> teams = new ArrayList<TeamInterface>();
+		for(Region region : Region.values())
+			for(int seed = 1; seed <= 16; seed++) {
+				TeamInterface team = new Team("T" + region + seed, seed, region);
+				bracket.addTeam(team);
+				teams.add(team);
+			}
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		List<Integer> noScores = Collections.singletonList(0);
+		for(int run = 0; run < runs; run++) {
+			long startTime = System.nanoTime();
+			long startBytes = threads.getThreadAllocatedBytes(thread);
+			long checksum = 0;
+			for(int i = 0; i < tournaments; i++) {
+				Random random = new Random(i);
+				//Play every round, inspect every team, then take every score back out
+				for(int round = 0; round < ROUNDS; round++)
+					for(TeamInterface team : teams)
+						if(team.is_alive())
+							bracket.addScore(team, 40+random.nextInt(60)+(team.getSeed() & 1));
+				for(TeamInterface team : teams)
+					checksum += bracket.possibleWins(team)+bracket.getScores(team).size();
+				for(TeamInterface team : teams)
+					bracket.editScores(team, noScores);
+			}
+			long millis = (System.nanoTime()-startTime)/1000000;
+			double megabytes = (threads.getThreadAllocatedBytes(thread)-startBytes)/1e6;
+			System.out.printf("run %d: %d ms, %.1f MB allocated (checksum %d)%n", run+1, millis, megabytes, checksum);
+		}
+	}
+}
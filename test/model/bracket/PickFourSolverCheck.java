@@ -0,0 +1,124 @@
+package model.bracket;
+
+import model.team.Region;
+import model.team.Team;
+import model.team.TeamInterface;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks the PickFourSolver against every way the rest of a small bracket can be played. Run it
+ * with the compiled classes on the class path; it throws AssertionError on the first check that fails.
+ *
+ * @author Clay Mackenthun
+ */
+public class PickFourSolverCheck
+{
+	private static final int TEAMS_PER_REGION = 4;
+
+	public static void main(String[] args)
+	{
+		int checks = 0;
+		for(long seed = 1; seed <= 20; seed++)
+			for(int played = 0; played < 4; played++)
+				checks += matchesBruteForce(seed, played, 10);
+		System.out.println("PickFourSolverCheck passed " + checks + " checks");
+	}
+
+	/**
+	 * Plays the first rounds of a bracket at random, then checks that the solver's maximum for
+	 * random picks is the best any outcome of the remaining games gives
+	 *
+	 * @return checks The number of picks checked
+	 */
+	private static int matchesBruteForce(long seed, int played, int trials)
+	{
+		Random random = new Random(seed*31 + played);
+		Bracket bracket = new Bracket(4, TEAMS_PER_REGION);
+		List<TeamInterface> teams = new ArrayList<TeamInterface>();
+		for(Region region : Region.values())
+			for(int s = 1; s <= TEAMS_PER_REGION; s++) {
+				Team team = new Team(region + " " + s, s, region);
+				bracket.addTeam(team);
+				teams.add(team);
+			}
+		for(int round = 1; round <= played; round++) {
+			List<Integer> scores = new ArrayList<Integer>();
+			for(int score = 40; score < 140; score++)
+				scores.add(score);
+			Collections.shuffle(scores, random);
+			int next = 0;
+			for(TeamInterface team : teams)
+				if(team.is_alive() && bracket.getScores(team).size() == round-1)
+					bracket.addScore(team, scores.get(next++));
+		}
+		
+		List<TeamInterface> alive = new ArrayList<TeamInterface>();
+		for(TeamInterface team : teams)
+			if(team.is_alive())
+				alive.add(team);
+		PickFourSolver solver = new PickFourSolver(bracket);
+		for(int trial = 0; trial < trials; trial++) {
+			//Mostly teams that are still alive, with the odd eliminated one
+			List<TeamInterface> picks = new ArrayList<TeamInterface>();
+			while(picks.size() < 4) {
+				TeamInterface team = teams.get(random.nextInt(teams.size()));
+				if(!picks.contains(team) && (team.is_alive() || random.nextInt(3) == 0))
+					picks.add(team);
+			}
+			int[] ids = new int[picks.size()];
+			for(int i = 0; i < ids.length; i++)
+				ids[i] = bracket.getTeamId(picks.get(i));
+			int solved = solver.maxRemainingPoints(ids);
+			int best = bestOutcome(bracket, alive, played+1, picks);
+			check(solved == best, "Picks " + picks + " after " + played + " rounds: solver " + solved + ", brute force " + best);
+		}
+		return trials;
+	}
+
+	/**
+	 * Returns the most points the picks can earn from every outcome of the games left to play
+	 *
+	 * @param teams The teams whose next game is in the round, in bracket order or not
+	 * @param round The round the teams play next
+	 * @param picks The pick four teams
+	 */
+	private static int bestOutcome(Bracket bracket, List<TeamInterface> teams, int round, List<TeamInterface> picks)
+	{
+		if(teams.size() == 1)
+			return 0;
+		List<TeamInterface[]> games = new ArrayList<TeamInterface[]>();
+		boolean[] paired = new boolean[teams.size()];
+		for(int i = 0; i < teams.size(); i++) {
+			if(paired[i])
+				continue;
+			for(int j = i+1; j < teams.size(); j++)
+				if(!paired[j] && bracket.matchupRound(teams.get(i), teams.get(j)) == round) {
+					games.add(new TeamInterface[] {teams.get(i), teams.get(j)});
+					paired[i] = paired[j] = true;
+					break;
+				}
+		}
+		int best = 0;
+		for(int outcome = 0; outcome < (1 << games.size()); outcome++) {
+			List<TeamInterface> winners = new ArrayList<TeamInterface>();
+			int points = 0;
+			for(int game = 0; game < games.size(); game++) {
+				TeamInterface winner = games.get(game)[(outcome >> game) & 1];
+				winners.add(winner);
+				if(picks.contains(winner))
+					points += winner.getSeed();
+			}
+			best = Math.max(best, points + bestOutcome(bracket, winners, round+1, picks));
+		}
+		return best;
+	}
+
+	private static void check(boolean condition, String message)
+	{
+		if(!condition)
+			throw new AssertionError(message);
+	}
+}